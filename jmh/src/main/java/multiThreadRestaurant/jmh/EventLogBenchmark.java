@@ -0,0 +1,78 @@
+package multiThreadRestaurant.jmh;
+
+import multiThreadRestaurant.enumeration.FoodType;
+import multiThreadRestaurant.models.Cook;
+import multiThreadRestaurant.models.Customer;
+import multiThreadRestaurant.models.Food;
+import multiThreadRestaurant.service.EventLog;
+import multiThreadRestaurant.service.SimulationEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of logging an event, i.e. what {@code Restaurant.logEvent}
+ * costs the actor, as more threads publish into one log. The log has no
+ * sinks, so the consumer only drains the ring. Run with {@code -prof gc}
+ * to see that publishing allocates nothing once the ring has gone round.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventLogBenchmark {
+    private final Cook cook = new Cook(1, "Cook 1");
+    private final List<Food> order = new LinkedList<>(List.of(FoodType.burger, FoodType.fries, FoodType.fries, FoodType.coffee));
+    private final Customer customer = new Customer("Customer 1", order);
+    private EventLog log;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        log = new EventLog(1 << 16, List.of());
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        log.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void publishers01() {
+        log.publish(SimulationEvent.cookStarting(cook));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void publishers04() {
+        log.publish(SimulationEvent.cookStarting(cook));
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void publishers16() {
+        log.publish(SimulationEvent.cookStarting(cook));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void placedOrder() {
+        log.publish(SimulationEvent.customerPlacedOrder(customer, order, customer.getOrderNum()));
+    }
+}
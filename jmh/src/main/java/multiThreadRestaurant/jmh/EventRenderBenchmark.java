@@ -0,0 +1,67 @@
+package multiThreadRestaurant.jmh;
+
+import multiThreadRestaurant.benchmark.SyntheticEvents;
+import multiThreadRestaurant.service.ConsoleEventSink;
+import multiThreadRestaurant.service.FileEventSink;
+import multiThreadRestaurant.service.SimulationEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per event of turning a batch of events into text, the way the
+ * console and file sinks do on the event log's consumer thread. Output goes
+ * nowhere, so only rendering and encoding are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventRenderBenchmark {
+    private static final int BATCH = 1024;
+
+    private List<SimulationEvent> batch;
+    private ConsoleEventSink console;
+    private FileEventSink file;
+
+    @Setup
+    public void setUp() {
+        batch = SyntheticEvents.validRun(BATCH, 42).subList(0, BATCH);
+        console = new ConsoleEventSink(new PrintStream(OutputStream.nullOutputStream()));
+        file = new FileEventSink(Path.of("/dev/null"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void consoleSink() {
+        console.write(batch);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void fileSink() {
+        file.write(batch);
+    }
+}
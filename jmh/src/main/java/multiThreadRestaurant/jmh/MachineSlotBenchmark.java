@@ -0,0 +1,55 @@
+package multiThreadRestaurant.jmh;
+
+import multiThreadRestaurant.enumeration.MachineExecutorMode;
+import multiThreadRestaurant.service.MachineExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A machine accepting an item into a free slot and freeing it again, and
+ * a full machine turning an item away: the two outcomes of
+ * {@code MachineExecutor.tryAcquire}, busy-time accounting included.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MachineSlotBenchmark {
+    private static final int CAPACITY = 4;
+
+    private MachineExecutor free;
+    private MachineExecutor full;
+
+    @Setup
+    public void setUp() {
+        free = new MachineExecutor("free", CAPACITY, MachineExecutorMode.TIMER);
+        full = new MachineExecutor("full", CAPACITY, MachineExecutorMode.TIMER);
+        for (int i = 0; i < CAPACITY; i++) {
+            full.tryAcquire();
+        }
+    }
+
+    @Benchmark
+    public boolean accept() {
+        boolean accepted = free.tryAcquire();
+        free.release();
+        return accepted;
+    }
+
+    @Benchmark
+    public boolean reject() {
+        return full.tryAcquire();
+    }
+}
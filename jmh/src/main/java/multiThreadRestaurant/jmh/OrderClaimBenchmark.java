@@ -0,0 +1,89 @@
+package multiThreadRestaurant.jmh;
+
+import multiThreadRestaurant.enumeration.FoodType;
+import multiThreadRestaurant.models.Food;
+import multiThreadRestaurant.models.OrderTicket;
+import multiThreadRestaurant.service.EarliestDeadlineFirst;
+import multiThreadRestaurant.service.FifoScheduling;
+import multiThreadRestaurant.service.OrderDispatchQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Order claim throughput: every thread is a cook placing an order on the
+ * shared dispatch queue and claiming the next one with its items into its
+ * own ticket. FIFO takes no lock; EDF takes the queue's lock twice per
+ * operation. Swept over 1 to 64 cooks and both kinds of policy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderClaimBenchmark {
+    private static final List<Food> ORDER = List.of(FoodType.burger, FoodType.fries, FoodType.coffee, FoodType.chicken);
+
+    @Param({ "fifo", "edf" })
+    public String policy;
+
+    private OrderDispatchQueue queue;
+    private final AtomicInteger nextOrder = new AtomicInteger();
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        queue = new OrderDispatchQueue(policy.equals("edf") ? new EarliestDeadlineFirst() : new FifoScheduling());
+    }
+
+    /**
+     * The ticket a cook claims its orders into.
+     */
+    @State(Scope.Thread)
+    public static class Cook {
+        final OrderTicket ticket = new OrderTicket();
+    }
+
+    private boolean placeAndClaim(Cook cook) {
+        queue.place(nextOrder.incrementAndGet(), ORDER, false, System.nanoTime());
+        return queue.tryClaimNext(cook.ticket);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean cooks01(Cook cook) {
+        return placeAndClaim(cook);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean cooks04(Cook cook) {
+        return placeAndClaim(cook);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean cooks16(Cook cook) {
+        return placeAndClaim(cook);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean cooks64(Cook cook) {
+        return placeAndClaim(cook);
+    }
+}
@@ -0,0 +1,73 @@
+package multiThreadRestaurant.jmh;
+
+import multiThreadRestaurant.Restaurant;
+import multiThreadRestaurant.SimulationOptions;
+import multiThreadRestaurant.enumeration.ExecutionMode;
+import multiThreadRestaurant.enumeration.FoodType;
+import multiThreadRestaurant.models.Food;
+import multiThreadRestaurant.service.OrderTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The order bookkeeping a machine and a customer go through: checking
+ * whether an order is done under the restaurant's order lock, and one
+ * order's whole life in the order table, from placing it through cooking
+ * and collecting its items to handing it over.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderStatusBenchmark {
+    private static final List<Food> ORDER = List.of(FoodType.burger, FoodType.burger, FoodType.fries,
+            FoodType.coffee, FoodType.chicken, FoodType.chicken);
+
+    private Restaurant restaurant;
+    private final OrderTable table = new OrderTable(8);
+    private int nextOrder = 0;
+
+    @Setup
+    public void setUp() {
+        restaurant = new Restaurant();
+        restaurant.open(-1, 1, 5, 4, new SimulationOptions().executionMode(ExecutionMode.DISCRETE_EVENT)
+                .printEvents(false).keepEvents(false));
+        restaurant.handlePlacedOrder(1, ORDER, false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        restaurant.close();
+    }
+
+    @Benchmark
+    public boolean checkOrderStatus() {
+        return restaurant.checkOrderStatus(1);
+    }
+
+    @Benchmark
+    public List<Food> orderLifecycle() {
+        int orderNum = ++nextOrder;
+        table.place(orderNum, ORDER);
+        for (Food food : ORDER) {
+            table.cooked(orderNum, food);
+            table.collect(orderNum, food);
+        }
+        table.complete(orderNum);
+        return table.takeCompleted(orderNum);
+    }
+}
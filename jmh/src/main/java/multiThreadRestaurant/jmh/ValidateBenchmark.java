@@ -0,0 +1,48 @@
+package multiThreadRestaurant.jmh;
+
+import multiThreadRestaurant.benchmark.SyntheticEvents;
+import multiThreadRestaurant.service.SimulationEvent;
+import multiThreadRestaurant.service.Validate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validating a whole valid event log of 10k, 100k and 1M events.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ValidateBenchmark {
+    @Param({ "10000", "100000", "1000000" })
+    public int events;
+
+    private List<SimulationEvent> log;
+
+    @Setup
+    public void setUp() {
+        log = SyntheticEvents.validRun(events, 42);
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // Validate prints the run's header
+    }
+
+    @Benchmark
+    public boolean validateSimulation() {
+        return Validate.validateSimulation(log);
+    }
+}
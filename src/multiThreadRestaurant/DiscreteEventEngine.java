@@ -0,0 +1,164 @@
+package multiThreadRestaurant;
+
+import multiThreadRestaurant.models.Cook;
+import multiThreadRestaurant.models.Customer;
+import multiThreadRestaurant.models.OrderTicket;
+import multiThreadRestaurant.service.ArrivalProcess;
+import multiThreadRestaurant.service.IntQueue;
+import multiThreadRestaurant.service.SimulationEvent;
+import multiThreadRestaurant.service.VirtualClock;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.function.IntFunction;
+
+/**
+ * Runs a restaurant without any actor threads. Customers and cooks become
+ * steps on a {@link VirtualClock}, machines are SIMULATED, and "cook for
+ * 500ms" is a task due 500ms later on the clock, so a run takes only as
+ * long as its bookkeeping.
+ *
+ * Each step does what {@link Customer#visit} or {@link Cook#run} would do at
+ * that point, through the same Restaurant calls, and logs the same events
+ * in the same order. Only the waiting differs: where a thread would park,
+ * the engine remembers who is waiting for what and schedules the next step
+ * when it is ready.
+ */
+class DiscreteEventEngine {
+    private final Restaurant restaurant;
+    private final VirtualClock clock;
+    private final Cook[] cooks;
+    private final int[] cooking; // order number each cook is waiting on, or NONE
+    private final OrderTicket ticket = new OrderTicket(); // the order claimed last
+    private final ArrayDeque<Cook> idleCooks = new ArrayDeque<>();
+    private final HashMap<Integer, Customer> diners = new HashMap<>(); // by order number, once they have ordered
+    private ArrivalProcess arrivals; // open until the last arrival is taken, or the run ends
+
+    DiscreteEventEngine(Restaurant restaurant, VirtualClock clock, Cook[] cooks) {
+        this.restaurant = restaurant;
+        this.clock = clock;
+        this.cooks = cooks;
+        this.cooking = new int[cooks.length];
+        for (Cook cook : cooks) {
+            restaurant.logEvent(SimulationEvent.cookStarting(cook));
+            cooking[cook.getId() - 1] = IntQueue.NONE;
+            idleCooks.add(cook);
+        }
+    }
+
+    /**
+     * The customer shows up at the current virtual instant.
+     */
+    void arrive(Customer customer) {
+        clock.schedule(() -> {
+            restaurant.logEvent(SimulationEvent.customerStarting(customer));
+            restaurant.getTableAdmission().admit(customer, () -> clock.schedule(() -> seated(customer), 0));
+        }, 0);
+    }
+
+    /**
+     * Lets up to {@code maxCustomers} customers in when the arrival process
+     * says they come. Each arrival schedules the next, so only one future
+     * customer exists at a time. The process is closed after the last
+     * arrival, or by {@link #run} if the run ends first.
+     */
+    void arrivals(ArrivalProcess arrivals, int maxCustomers, IntFunction<Customer> customers) {
+        this.arrivals = arrivals;
+        nextArrival(0, maxCustomers, customers);
+    }
+
+    private void nextArrival(int i, int maxCustomers, IntFunction<Customer> customers) {
+        long at = i < maxCustomers ? restaurant.nextArrival(arrivals) : ArrivalProcess.END;
+        if (at == ArrivalProcess.END) {
+            closeArrivals();
+            return;
+        }
+        clock.schedule(() -> {
+            if (restaurant.admit(customers.apply(i))) {
+                nextArrival(i + 1, maxCustomers, customers);
+            } else {
+                closeArrivals();
+            }
+        }, at - clock.nanoTime());
+    }
+
+    private void closeArrivals() {
+        if (arrivals != null) {
+            ArrivalProcess done = arrivals;
+            arrivals = null;
+            done.close();
+        }
+    }
+
+    private void seated(Customer customer) {
+        restaurant.logEvent(SimulationEvent.customerEnteredRestaurant(customer));
+        restaurant.logEvent(SimulationEvent.customerPlacedOrder(customer, customer.getOrder(), customer.getOrderNum()));
+        diners.put(customer.getOrderNum(), customer);
+        restaurant.handlePlacedOrder(customer.getOrderNum(), customer.getOrder(), customer.isVip());
+        dispatch();
+    }
+
+    /**
+     * Idle cooks claim waiting orders, in the order the scheduling policy
+     * gives them out.
+     */
+    private void dispatch() {
+        while (!idleCooks.isEmpty()) {
+            if (!restaurant.tryClaimNextOrder(ticket)) {
+                return;
+            }
+            int orderNum = ticket.getOrderNum();
+            Cook cook = idleCooks.poll();
+            restaurant.logEvent(SimulationEvent.cookReceivedOrder(cook, ticket.getItems(), orderNum));
+            if (restaurant.queueOrder(cook, orderNum)) {
+                cook.orderCompleted();
+                served(cook, orderNum);
+            } else {
+                cooking[cook.getId() - 1] = orderNum;
+            }
+        }
+    }
+
+    /**
+     * Steps the clock until nobody is waiting for anything, then sends the
+     * cooks home.
+     */
+    void run() {
+        try {
+            runEvents();
+        } finally {
+            closeArrivals();
+        }
+        for (Cook cook : cooks) {
+            restaurant.logEvent(SimulationEvent.cookEnding(cook));
+        }
+    }
+
+    private void runEvents() {
+        while (!restaurant.isStopped() && clock.runNext()) {
+            for (Cook cook : cooks) {
+                int orderNum = cooking[cook.getId() - 1];
+                if (orderNum != IntQueue.NONE && restaurant.itemsRemaining(orderNum) == 0) {
+                    cooking[cook.getId() - 1] = IntQueue.NONE;
+                    restaurant.handleCompletedOrder(cook, orderNum);
+                    cook.orderCompleted();
+                    served(cook, orderNum);
+                }
+            }
+        }
+    }
+
+    /**
+     * The cook has completed the order: the customer takes it and leaves,
+     * and the cook is free for the next one.
+     */
+    private void served(Cook cook, int orderNum) {
+        Customer customer = diners.remove(orderNum);
+        restaurant.logEvent(SimulationEvent.customerReceivedOrder(customer, restaurant.getCompletedOrder(orderNum), orderNum));
+        restaurant.logEvent(SimulationEvent.customerLeavingRestaurant(customer));
+        restaurant.customerLeft();
+        restaurant.handleCustomerLeft();
+        idleCooks.add(cook);
+        dispatch();
+    }
+}
@@ -0,0 +1,153 @@
+package multiThreadRestaurant;
+
+import multiThreadRestaurant.enumeration.ExecutionMode;
+import multiThreadRestaurant.exceptions.InvalidSimulationException;
+import multiThreadRestaurant.models.Customer;
+import multiThreadRestaurant.service.ArrivalProcess;
+import multiThreadRestaurant.service.Clock;
+import multiThreadRestaurant.service.CustomerDispatcher;
+import multiThreadRestaurant.service.EventJournal;
+import multiThreadRestaurant.service.EventSink;
+import multiThreadRestaurant.service.FileEventSink;
+import multiThreadRestaurant.service.SimulationEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Several restaurants run side by side as shards, each with its own cooks,
+ * tables, machines, order lock and event log, so they share nothing while
+ * they run. A {@link CustomerDispatcher} sends every arriving customer to
+ * one of them.
+ *
+ * Every event is stamped with its shard (1 to n), and the shards' streams
+ * are merged by timestamp into one stream that
+ * {@link multiThreadRestaurant.service.Validate} checks shard by shard.
+ * Since shards don't know in advance how many customers they will get,
+ * each announces an open-ended run.
+ */
+public class Franchise {
+    private final Restaurant[] shards;
+    private final CustomerDispatcher dispatcher;
+    private final int[] dispatched;
+
+    public Franchise(int numShards, CustomerDispatcher dispatcher) {
+        if (numShards < 1) {
+            throw new InvalidSimulationException("A franchise needs at least one restaurant", 400);
+        }
+        this.shards = new Restaurant[numShards];
+        for (int i = 0; i < numShards; i++) {
+            shards[i] = new Restaurant(i + 1);
+        }
+        this.dispatcher = dispatcher;
+        this.dispatched = new int[numShards];
+    }
+
+    public Restaurant[] getShards() {
+        return shards.clone();
+    }
+
+    /**
+     * Customers the dispatcher sent to each shard in the last run.
+     */
+    public int[] getDispatched() {
+        return dispatched.clone();
+    }
+
+    /**
+     * Runs every shard with {@code numCooks} cooks, {@code numTables} tables
+     * and machines of {@code machineCapacity}, and dispatches
+     * {@code numCustomers} customers between them. The options apply to each
+     * shard, except that the event file, journal and extra sinks receive the
+     * merged stream once the run is over. With an arrival process the
+     * customers are dispatched as they arrive, timed on the first shard's
+     * clock; discrete-event shards can't be fed that way.
+     */
+    public List<SimulationEvent> run(int numCustomers, int numCooks, int numTables, int machineCapacity,
+                                     boolean randomOrders, SimulationOptions options) {
+        SimulationOptions shardOptions = options.copy().keepEvents(true).eventFile(null).eventJournal(null);
+        shardOptions.eventSinks.clear();
+        if (options.arrivals != null && options.executionMode == ExecutionMode.DISCRETE_EVENT) {
+            throw new InvalidSimulationException("A franchise can't time arrivals across discrete-event shards", 400);
+        }
+        for (Restaurant shard : shards) {
+            shard.open(-1, numCooks, numTables, machineCapacity, shardOptions);
+        }
+        Arrays.fill(dispatched, 0);
+        ArrivalProcess arrivals = options.arrivals == null ? null : options.arrivals.get();
+        Clock clock = shards[0].getClock();
+        long opened = clock.nanoTime();
+        for (int i = 0; i < numCustomers; i++) {
+            if (arrivals != null) {
+                long at = shards[0].nextArrival(arrivals);
+                if (at == ArrivalProcess.END) {
+                    break;
+                }
+                try {
+                    clock.sleepNanos(opened + at - clock.nanoTime());
+                } catch (InterruptedException e) {
+                    System.out.println("Simulation thread has been interrupted.");
+                    break;
+                }
+            }
+            Customer customer = randomOrders ? Simulation.randomCustomer(i) : Simulation.fixedCustomer(i);
+            int shard = dispatcher.route(customer, shards);
+            if (!shards[shard].admit(customer)) {
+                break;
+            }
+            dispatched[shard]++;
+        }
+
+        List<List<SimulationEvent>> streams = new ArrayList<>();
+        RuntimeException failure = null;
+        for (Restaurant shard : shards) {
+            try {
+                streams.add(shard.close());
+            } catch (RuntimeException e) {
+                failure = failure == null ? e : failure;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+
+        List<SimulationEvent> merged = merge(streams);
+        List<EventSink> sinks = new ArrayList<>(options.eventSinks);
+        if (options.eventFile != null) {
+            sinks.add(new FileEventSink(options.eventFile));
+        }
+        if (options.eventJournal != null) {
+            sinks.add(new EventJournal(options.eventJournal));
+        }
+        for (EventSink sink : sinks) {
+            sink.write(merged);
+            sink.close();
+        }
+        return options.keepEvents ? merged : new ArrayList<>();
+    }
+
+    /**
+     * Interleaves the streams by timestamp. Each stream keeps its own order,
+     * even where its timestamps don't strictly increase.
+     */
+    public static List<SimulationEvent> merge(List<List<SimulationEvent>> streams) {
+        int total = 0;
+        for (List<SimulationEvent> stream : streams) {
+            total += stream.size();
+        }
+        List<SimulationEvent> merged = new ArrayList<>(total);
+        int[] next = new int[streams.size()];
+        while (merged.size() < total) {
+            int earliest = -1;
+            for (int s = 0; s < streams.size(); s++) {
+                if (next[s] < streams.get(s).size() && (earliest < 0
+                        || streams.get(s).get(next[s]).getTimestamp() < streams.get(earliest).get(next[earliest]).getTimestamp())) {
+                    earliest = s;
+                }
+            }
+            merged.add(streams.get(earliest).get(next[earliest]++));
+        }
+        return merged;
+    }
+}
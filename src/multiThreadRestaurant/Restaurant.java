@@ -0,0 +1,788 @@
+package multiThreadRestaurant;
+
+import multiThreadRestaurant.enumeration.ExecutionMode;
+import multiThreadRestaurant.enumeration.FoodType;
+import multiThreadRestaurant.enumeration.MachineExecutorMode;
+import multiThreadRestaurant.enumeration.MachineType;
+import multiThreadRestaurant.exceptions.InvalidSimulationException;
+import multiThreadRestaurant.metrics.Jmx;
+import multiThreadRestaurant.metrics.LockStats;
+import multiThreadRestaurant.metrics.MachineMonitor;
+import multiThreadRestaurant.metrics.OrderQueueMonitor;
+import multiThreadRestaurant.metrics.TableMonitor;
+import multiThreadRestaurant.metrics.StageTimings;
+import multiThreadRestaurant.models.Cook;
+import multiThreadRestaurant.models.Customer;
+import multiThreadRestaurant.models.Food;
+import multiThreadRestaurant.models.Machine;
+import multiThreadRestaurant.models.MachinePool;
+import multiThreadRestaurant.models.OrderTicket;
+import multiThreadRestaurant.service.ArrivalProcess;
+import multiThreadRestaurant.service.Clock;
+import multiThreadRestaurant.service.ConsoleEventSink;
+import multiThreadRestaurant.service.EventJournal;
+import multiThreadRestaurant.service.EventLog;
+import multiThreadRestaurant.service.EventSink;
+import multiThreadRestaurant.service.FileEventSink;
+import multiThreadRestaurant.service.LiveValidator;
+import multiThreadRestaurant.service.MemoryEventSink;
+import multiThreadRestaurant.service.OrderDispatchQueue;
+import multiThreadRestaurant.service.OrderTable;
+import multiThreadRestaurant.service.ScaledClock;
+import multiThreadRestaurant.service.SimulationEvent;
+import multiThreadRestaurant.service.TableAdmission;
+import multiThreadRestaurant.service.VirtualClock;
+import multiThreadRestaurant.service.WorkStealingKitchen;
+
+import javax.management.ObjectName;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+
+/**
+ * One restaurant: its tables, cooks, machines and orders, and the event log
+ * they all write to. {@link Simulation} runs one at a time; a
+ * {@link Franchise} runs several side by side as shards that share nothing,
+ * not even a lock.
+ *
+ * A run goes {@link #open}, then {@link #admit} for every customer, then
+ * {@link #close}.
+ */
+public class Restaurant {
+    private final int shard; // 0 on its own, 1 to n in a franchise
+    private EventLog eventLog;
+    private HashMap<String, MachinePool> machines;
+    private TableAdmission frontDoor; // seats entering customers and parks the ones waiting for a table
+    private OrderDispatchQueue orderQueue = new OrderDispatchQueue();
+    private final ReentrantLock orderLock = new ReentrantLock(); // guards orders and orders the events logged under it
+    private OrderTable orders = new OrderTable(64);
+    private final LockStats orderLockStats = new LockStats();
+    private Cook[] cookStaff = new Cook[0];
+    private WorkStealingKitchen kitchen; // null unless cooks steal item tasks from each other
+    private final Set<Thread> customerThreads = ConcurrentHashMap.newKeySet(); // those still visiting
+    private Thread[] cookThreads = new Thread[0];
+    private final AtomicInteger customersPresent = new AtomicInteger();
+    private volatile String abortReason;
+
+    private Thread.Builder threads;
+    private VirtualClock virtualClock; // discrete-event runs only
+    private DiscreteEventEngine engine; // discrete-event runs only
+    private Clock clock = ScaledClock.REAL_TIME;
+    private MemoryEventSink memory;
+    private LiveValidator liveValidator;
+    private StageTimings stageTimings;
+    private final List<ObjectName> monitors = new ArrayList<>(); // published over JMX while open
+
+    public Restaurant() {
+        this(0);
+    }
+
+    public Restaurant(int shard) {
+        this.shard = shard;
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    /**
+     * Customers admitted who haven't left yet, seated or waiting for a table.
+     */
+    public int customersPresent() {
+        return customersPresent.get();
+    }
+
+    void customerLeft() {
+        customersPresent.decrementAndGet();
+    }
+
+    /**
+     * Now on the restaurant's clock, in simulated nanoseconds.
+     */
+    public long nanoTime() {
+        return clock.nanoTime();
+    }
+
+    /**
+     * Real time at the run's clock speed, or the virtual clock of a
+     * discrete-event run.
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    boolean isStopped() {
+        return abortReason != null;
+    }
+
+    private void lockOrders() {
+        orderLockStats.lock(orderLock);
+    }
+
+    /**
+     * Times the order lock has been taken so far.
+     */
+    public long orderLockAcquisitions() {
+        return orderLockStats.acquisitions();
+    }
+
+    public LockStats orderLockStats() {
+        return orderLockStats;
+    }
+
+    /**
+     * The cooks on shift.
+     */
+    public Cook[] getCooks() {
+        return cookStaff.clone();
+    }
+
+    public void logEvent(SimulationEvent event) {
+        eventLog.publish(event);
+    }
+
+    /**
+     * Parks the calling customer until a table is free, then seats them.
+     */
+    public void handleCustomerEntrance(Customer customer) throws InterruptedException {
+        frontDoor.admit(customer);
+    }
+
+    public void handleCustomerLeft() {
+        frontDoor.release();
+    }
+
+    public TableAdmission getTableAdmission() {
+        return frontDoor;
+    }
+
+    /**
+     * Per-stage order timings of the current or last run, or null if the
+     * options didn't ask for them.
+     */
+    public StageTimings getStageTimings() {
+        return stageTimings;
+    }
+
+    /**
+     * Stops the restaurant early: every customer and cook is interrupted and
+     * {@link #close} throws with the given reason once the actors have wound
+     * down.
+     */
+    public void abort(String reason) {
+        if (abortReason != null) {
+            return;
+        }
+        abortReason = reason;
+        interruptActors();
+    }
+
+    private void interruptActors() {
+        for (Thread customer : customerThreads) {
+            customer.interrupt();
+        }
+        for (Thread cook : cookThreads) {
+            if (cook != null) {
+                cook.interrupt();
+            }
+        }
+    }
+
+    public void handlePlacedOrder(int orderNum, List<Food> order) {
+        handlePlacedOrder(orderNum, order, false);
+    }
+
+    public void handlePlacedOrder(int orderNum, List<Food> order, boolean vip) {
+        long placedNanos = clock.nanoTime();
+        lockOrders();
+        try {
+            orders.place(orderNum, order);
+        } finally {
+            orderLock.unlock();
+        }
+        orderQueue.place(orderNum, order, vip, placedNanos);
+        if (kitchen != null) {
+            kitchen.signalWork();
+        }
+    }
+
+    /**
+     * Hands the calling cook the next waiting order with its items, in
+     * {@code ticket}, parking them until one is placed.
+     */
+    public void claimNextOrder(OrderTicket ticket) throws InterruptedException {
+        orderQueue.claimNext(ticket);
+    }
+
+    /**
+     * Hands over the next waiting order in {@code ticket}, or returns false
+     * without waiting if there is none.
+     */
+    public boolean tryClaimNextOrder(OrderTicket ticket) {
+        return orderQueue.tryClaimNext(ticket);
+    }
+
+    /**
+     * The work-stealing kitchen, or null if cooks each see their own orders
+     * through.
+     */
+    public WorkStealingKitchen getKitchen() {
+        return kitchen;
+    }
+
+    public void handleCompletedOrder(Cook cook, int orderNum) {
+        Thread customer;
+        lockOrders();
+        try {
+            logEvent(SimulationEvent.cookCompletedOrder(cook, orderNum));
+            customer = orders.complete(orderNum);
+        } finally {
+            orderLock.unlock();
+        }
+        if (customer != null) {
+            LockSupport.unpark(customer);
+        }
+    }
+
+    /**
+     * Items of the order not yet taken off their machines.
+     */
+    int itemsRemaining(int orderNum) {
+        lockOrders();
+        try {
+            return orders.itemsRemaining(orderNum);
+        } finally {
+            orderLock.unlock();
+        }
+    }
+
+    public boolean checkOrderStatus(int orderNum) {
+        lockOrders();
+        try {
+            return orders.isComplete(orderNum);
+        } finally {
+            orderLock.unlock();
+        }
+    }
+
+    /**
+     * Blocks the calling customer until a cook completes the given order.
+     */
+    public void awaitOrder(int orderNum) throws InterruptedException {
+        lockOrders();
+        try {
+            if (orders.isComplete(orderNum)) {
+                return;
+            }
+            orders.setWaiter(orderNum, Thread.currentThread());
+        } finally {
+            orderLock.unlock();
+        }
+        while (true) {
+            LockSupport.park(orders);
+            lockOrders();
+            try {
+                if (orders.isComplete(orderNum)) {
+                    return;
+                }
+                if (Thread.interrupted()) {
+                    orders.setWaiter(orderNum, null);
+                    throw new InterruptedException();
+                }
+            } finally {
+                orderLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Puts every item of the order on its machine's queue for the cook, then
+     * parks the cook until the last item has come off its machine.
+     */
+    public void cookOrder(Cook cook, int orderNum) throws InterruptedException {
+        lockOrders();
+        try {
+            orders.assign(orderNum, cook);
+            for (Food food : orders.items(orderNum)) {
+                machines.get(food.name).enqueue(orderNum);
+            }
+            if (orders.itemsRemaining(orderNum) == 0) {
+                return;
+            }
+            orders.setCookWaiter(orderNum, Thread.currentThread());
+        } finally {
+            orderLock.unlock();
+        }
+        while (true) {
+            LockSupport.park(orders);
+            lockOrders();
+            try {
+                if (orders.itemsRemaining(orderNum) == 0) {
+                    return;
+                }
+                if (Thread.interrupted()) {
+                    orders.setCookWaiter(orderNum, null);
+                    throw new InterruptedException();
+                }
+            } finally {
+                orderLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Non-blocking counterpart of {@link #cookOrder}, for work-stealing and
+     * discrete-event cooks: puts every item of the order on its machine's
+     * queue and returns at once. Returns true if the order had no items and
+     * was completed on the spot.
+     */
+    public boolean queueOrder(Cook cook, int orderNum) {
+        Thread customer;
+        lockOrders();
+        try {
+            orders.assign(orderNum, cook);
+            for (Food food : orders.items(orderNum)) {
+                machines.get(food.name).enqueue(orderNum);
+            }
+            if (orders.itemsRemaining(orderNum) > 0) {
+                return false;
+            }
+            logEvent(SimulationEvent.cookCompletedOrder(cook, orderNum));
+            customer = orders.complete(orderNum);
+        } finally {
+            orderLock.unlock();
+        }
+        if (customer != null) {
+            LockSupport.unpark(customer);
+        }
+        return true;
+    }
+
+    /**
+     * A cook, not necessarily the one who received the order, takes a
+     * finished item off its machine. Whoever takes the last item completes
+     * the order; returns true if that was the caller.
+     */
+    public boolean collectItem(Cook cook, long task) {
+        int orderNum = WorkStealingKitchen.orderOf(task);
+        Food food = WorkStealingKitchen.foodOf(task);
+        Thread customer = null;
+        lockOrders();
+        try {
+            if (!orders.collect(orderNum, food)) {
+                return false;
+            }
+            logEvent(SimulationEvent.cookFinishedFood(cook, food, orderNum));
+            machines.get(food.name).get(WorkStealingKitchen.unitOf(task)).itemCollected();
+            if (orders.itemsRemaining(orderNum) > 0) {
+                return false;
+            }
+            logEvent(SimulationEvent.cookCompletedOrder(cook, orderNum));
+            customer = orders.complete(orderNum);
+        } finally {
+            orderLock.unlock();
+        }
+        if (customer != null) {
+            LockSupport.unpark(customer);
+        }
+        return true;
+    }
+
+    /**
+     * The cook handling an order. Only for callers already holding the order
+     * lock, i.e. machines starting queued items.
+     */
+    public Cook orderHandler(int orderNum) {
+        return orders.handler(orderNum);
+    }
+
+    /**
+     * Called by a machine when an item is done: the cook takes it straight
+     * off, which frees the slot for the machine's next queued item, and is
+     * woken if that was the last item of the order. In a work-stealing
+     * kitchen taking it off becomes a task for whichever cook gets to it.
+     */
+    public void updateCookedOrder(Machine machine, int orderNum, Food foodCooked) {
+        if (kitchen != null) {
+            Cook handler;
+            lockOrders();
+            try {
+                orders.cooked(orderNum, foodCooked);
+                logEvent(SimulationEvent.machineDoneFood(machine, foodCooked));
+                handler = orders.handler(orderNum);
+            } finally {
+                orderLock.unlock();
+            }
+            kitchen.push(handler.getId() - 1, WorkStealingKitchen.task(orderNum, machine));
+            return;
+        }
+        Thread cook = null;
+        lockOrders();
+        try {
+            orders.cooked(orderNum, foodCooked);
+            logEvent(SimulationEvent.machineDoneFood(machine, foodCooked));
+            if (orders.collect(orderNum, foodCooked)) {
+                logEvent(SimulationEvent.cookFinishedFood(orders.handler(orderNum), foodCooked, orderNum));
+                machine.itemCollected();
+                if (orders.itemsRemaining(orderNum) == 0) {
+                    cook = orders.takeCookWaiter(orderNum);
+                }
+            }
+        } finally {
+            orderLock.unlock();
+        }
+        if (cook != null) {
+            LockSupport.unpark(cook);
+        }
+    }
+
+    /**
+     * Like {@link #updateCookedOrder} for every item of a batch that came
+     * off the machine together; the batch's slots are freed at the end.
+     */
+    public void updateCookedBatch(Machine machine, int[] orderNums) {
+        Food foodCooked = machine.machineFoodType;
+        Thread[] cooks = new Thread[orderNums.length];
+        lockOrders();
+        try {
+            for (int i = 0; i < orderNums.length; i++) {
+                int orderNum = orderNums[i];
+                orders.cooked(orderNum, foodCooked);
+                logEvent(SimulationEvent.machineDoneFood(machine, foodCooked));
+                if (orders.collect(orderNum, foodCooked)) {
+                    logEvent(SimulationEvent.cookFinishedFood(orders.handler(orderNum), foodCooked, orderNum));
+                    if (orders.itemsRemaining(orderNum) == 0) {
+                        cooks[i] = orders.takeCookWaiter(orderNum);
+                    }
+                }
+            }
+            machine.itemsCollected(orderNums.length);
+        } finally {
+            orderLock.unlock();
+        }
+        for (Thread cook : cooks) {
+            if (cook != null) {
+                LockSupport.unpark(cook);
+            }
+        }
+    }
+
+    /**
+     * A batching machine's window is up: put on whatever has queued.
+     */
+    public void flushMachine(Machine machine) {
+        lockOrders();
+        try {
+            machine.windowClosed();
+        } finally {
+            orderLock.unlock();
+        }
+    }
+
+    /**
+     * Hands the customer their completed order and forgets it.
+     */
+    public List<Food> getCompletedOrder(int orderNum) {
+        lockOrders();
+        try {
+            return orders.takeCompleted(orderNum);
+        } finally {
+            orderLock.unlock();
+        }
+    }
+
+    /**
+     * Opens for business: starts the event log, the machines and the cooks.
+     * {@code numCustomers} is how many customers will be admitted, or -1 if
+     * a dispatcher decides that as they arrive.
+     */
+    public void open(int numCustomers, int numCooks, int numTables, int machineCapacity, SimulationOptions options) {
+        if (options.workStealing && options.batchSize > 1) {
+            throw new InvalidSimulationException("Work stealing can't be combined with machine batching", 400);
+        }
+        if (options.machinesPerFood < 1 || options.machinesPerFood > 255) {
+            throw new InvalidSimulationException("Each food type needs between 1 and 255 machines", 400);
+        }
+        for (int[] capacities : options.machinePools.values()) {
+            if (capacities.length < 1 || capacities.length > 255 || Arrays.stream(capacities).anyMatch(c -> c < 1)) {
+                throw new InvalidSimulationException("A machine pool needs between 1 and 255 machines, each with a capacity of at least 1", 400);
+            }
+        }
+        boolean discreteEvent = options.executionMode == ExecutionMode.DISCRETE_EVENT;
+        if (discreteEvent != (options.machineExecutorMode == MachineExecutorMode.SIMULATED)) {
+            throw new InvalidSimulationException("SIMULATED machines only run in, and are needed by, the DISCRETE_EVENT execution mode", 400);
+        }
+        if (discreteEvent && options.workStealing) {
+            throw new InvalidSimulationException("Work stealing needs cook threads; it can't run in the DISCRETE_EVENT execution mode", 400);
+        }
+        virtualClock = discreteEvent ? new VirtualClock() : null;
+        clock = discreteEvent ? virtualClock : options.clockSpeed == 1 ? ScaledClock.REAL_TIME : new ScaledClock(options.clockSpeed);
+        frontDoor = new TableAdmission(numTables, options.admissionPolicy, clock);
+        orderQueue = new OrderDispatchQueue(options.orderScheduling.get(), numTables);
+        orders = new OrderTable(numTables);
+        kitchen = options.workStealing ? new WorkStealingKitchen(numCooks) : null;
+        orderLockStats.reset();
+        cookStaff = new Cook[numCooks];
+        memory = new MemoryEventSink();
+        List<EventSink> sinks = new ArrayList<>();
+        if (options.keepEvents) {
+            sinks.add(memory);
+        }
+        if (options.printEvents) {
+            sinks.add(new ConsoleEventSink());
+        }
+        stageTimings = options.stageTimings ? new StageTimings(true) : null;
+        if (stageTimings != null) {
+            sinks.add(stageTimings);
+        }
+        if (options.eventFile != null) {
+            sinks.add(new FileEventSink(options.eventFile));
+        }
+        if (options.eventJournal != null) {
+            sinks.add(new EventJournal(options.eventJournal));
+        }
+        sinks.addAll(options.eventSinks);
+        liveValidator = null;
+        if (options.validateOnline) {
+            liveValidator = new LiveValidator(options.failFast ? this::abort : violation -> { });
+            sinks.add(liveValidator);
+        }
+        abortReason = null;
+        eventLog = new EventLog(options.eventRingSize, sinks, shard, clock);
+        logEvent(SimulationEvent.startSimulation(numCustomers, numCooks, numTables, machineCapacity,
+                options.machinesPerFood, options.workStealing));
+        assignFoodTypesToMachineType(machineCapacity, options);
+        if (options.jmx) {
+            publishMonitors();
+        }
+        threads = options.executionMode == ExecutionMode.VIRTUAL ? Thread.ofVirtual() : Thread.ofPlatform();
+        Thread[] cooks = new Thread[numCooks];
+        cookThreads = cooks;
+
+        for (int i = 0; i < numCooks; i++) {
+            cookStaff[i] = new Cook(i + 1, "Cook " + (i + 1), this);
+        }
+        if (discreteEvent) {
+            cookThreads = new Thread[0];
+            engine = new DiscreteEventEngine(this, virtualClock, cookStaff);
+            return;
+        }
+        engine = null;
+        for (int i = 0; i < numCooks; i++) {
+            cooks[i] = threads.unstarted(cookStaff[i]);
+            cooks[i].start();
+        }
+    }
+
+    /**
+     * Lets a customer in on a thread of their own, or in a discrete-event run
+     * has them arrive at the current virtual instant. Returns false, without
+     * admitting them, once the restaurant has been stopped.
+     */
+    public boolean admit(Customer customer) {
+        if (abortReason != null) {
+            return false;
+        }
+        customersPresent.incrementAndGet();
+        if (engine != null) {
+            engine.arrive(customer);
+            return true;
+        }
+        Thread thread = threads.unstarted(() -> {
+            try {
+                customer.visit(this);
+            } finally {
+                customersPresent.decrementAndGet();
+                customerThreads.remove(Thread.currentThread());
+            }
+        });
+        customerThreads.add(thread);
+        thread.start();
+        if (abortReason != null) {
+            thread.interrupt(); // abort() may have been interrupting the others while this one started
+        }
+        return true;
+    }
+
+    /**
+     * Waits for every admitted customer to leave, then sends the cooks home,
+     * shuts the machines down and closes the event log. Returns the events
+     * if the options keep them; throws if the restaurant was stopped, its
+     * events broke a rule or an event sink failed.
+     */
+    public List<SimulationEvent> close() {
+        if (engine != null) {
+            engine.run();
+        }
+        try {
+            for (Thread customer : customerThreads) {
+                customer.join();
+            }
+
+            for (int i = 0; i < cookThreads.length; i++) {
+                cookThreads[i].interrupt();
+            }
+
+            for (int i = 0; i < cookThreads.length; i++) {
+                cookThreads[i].join();
+            }
+        }
+        catch (InterruptedException e) {
+            System.out.println("Simulation thread has been interrupted.");
+        }
+
+        for (MachinePool pool : machines.values()) {
+            for (Machine machine : pool.getMachines()) {
+                machine.shutdown();
+                logEvent(SimulationEvent.machineEnding(machine));
+            }
+        }
+
+        for (ObjectName monitor : monitors) {
+            Jmx.unregister(monitor);
+        }
+        monitors.clear();
+
+        logEvent(SimulationEvent.endSimulation());
+        try {
+            eventLog.close();
+        } finally {
+            customerThreads.clear();
+            cookThreads = new Thread[0];
+        }
+
+        if (abortReason != null) {
+            throw new InvalidSimulationException("Simulation stopped: " + abortReason, 400);
+        }
+        if (liveValidator != null && liveValidator.getViolation() != null) {
+            throw new InvalidSimulationException(liveValidator.getViolation(), 400);
+        }
+        return memory.getEvents();
+    }
+
+    /**
+     * A whole run: opens, admits {@code numCustomers} customers with random
+     * or fixed orders, and closes.
+     */
+    public List<SimulationEvent> run(int numCustomers, int numCooks, int numTables, int machineCapacity,
+                                     boolean randomOrders, SimulationOptions options) {
+        IntFunction<Customer> customers = randomOrders ? Simulation::randomCustomer : Simulation::fixedCustomer;
+        if (options.arrivals != null) {
+            open(-1, numCooks, numTables, machineCapacity, options);
+            admitArrivals(options.arrivals.get(), numCustomers, customers);
+            return close();
+        }
+        open(numCustomers, numCooks, numTables, machineCapacity, options);
+        for (int i = 0; i < numCustomers; i++) {
+            if (!admit(customers.apply(i))) {
+                break;
+            }
+        }
+        return close();
+    }
+
+    /**
+     * Lets up to {@code maxCustomers} customers in as the arrival process
+     * says they come, creating each one only when they arrive. Blocks the
+     * caller, waiting on the restaurant's clock, until the last has been let
+     * in; a discrete-event run only schedules the arrivals, which take place
+     * on {@link #close}. An arrival process that fails, e.g. on a bad trace
+     * line, stops the restaurant. The process is closed once no more
+     * arrivals are taken, whether the run stops early or not.
+     */
+    public void admitArrivals(ArrivalProcess arrivals, int maxCustomers, IntFunction<Customer> customers) {
+        if (engine != null) {
+            engine.arrivals(arrivals, maxCustomers, customers);
+            return;
+        }
+        long opened = clock.nanoTime();
+        try (arrivals) {
+            for (int i = 0; i < maxCustomers; i++) {
+                long at = nextArrival(arrivals);
+                if (at == ArrivalProcess.END) {
+                    return;
+                }
+                clock.sleepNanos(opened + at - clock.nanoTime());
+                if (!admit(customers.apply(i))) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            System.out.println("Simulation thread has been interrupted.");
+        }
+    }
+
+    /**
+     * The process's next arrival, or {@link ArrivalProcess#END} after
+     * stopping the restaurant if the process failed.
+     */
+    long nextArrival(ArrivalProcess arrivals) {
+        try {
+            return arrivals.nextArrivalNanos();
+        } catch (RuntimeException e) {
+            abort(e.getMessage());
+            return ArrivalProcess.END;
+        }
+    }
+
+    private void publishMonitors() {
+        for (MachinePool pool : machines.values()) {
+            for (Machine machine : pool.getMachines()) {
+                monitors.add(Jmx.register(new MachineMonitor(machine), shard, "Machine", machine.toString()));
+            }
+        }
+        monitors.add(Jmx.register(new OrderQueueMonitor(orderQueue, orderLockStats), shard, "OrderQueue", "Orders"));
+        monitors.add(Jmx.register(new TableMonitor(frontDoor), shard, "Tables", "Front door"));
+    }
+
+    public void assignFoodTypesToMachineType(int machineCapacity) {
+        assignFoodTypesToMachineType(machineCapacity, new SimulationOptions());
+    }
+
+    /**
+     * Sets up the machines of every food type: one of the given capacity
+     * unless the options ask for a pool. The capacities of a configured
+     * pool are announced from the options before its machines start, so the
+     * validator can hold each machine to the capacity it was configured
+     * with. Batching does not change a machine's capacity: every item of a
+     * batch takes a slot.
+     */
+    public void assignFoodTypesToMachineType(int machineCapacity, SimulationOptions options) {
+        machines = new HashMap<>();
+        machines.put(FoodType.chicken.name, machinePool(MachineType.OVEN, FoodType.chicken, machineCapacity, options));
+        machines.put(FoodType.coffee.name, machinePool(MachineType.FOUNTAIN, FoodType.coffee, machineCapacity, options));
+        machines.put(FoodType.fries.name, machinePool(MachineType.FRYER, FoodType.fries, machineCapacity, options));
+        machines.put(FoodType.burger.name, machinePool(MachineType.GRILL_PRESS, FoodType.burger, machineCapacity, options));
+        for (Food food : new Food[] { FoodType.chicken, FoodType.coffee, FoodType.fries, FoodType.burger }) {
+            int[] capacities = options.machinePools.get(food.name);
+            Machine[] pool = machines.get(food.name).getMachines();
+            for (int i = 0; capacities != null && i < capacities.length; i++) {
+                logEvent(SimulationEvent.machineConfigured(pool[i], food, capacities[i]));
+            }
+            for (Machine machine : pool) {
+                logEvent(SimulationEvent.machineStarting(machine, food, machine.getCapacity()));
+            }
+        }
+    }
+
+    private MachinePool machinePool(MachineType type, Food food, int machineCapacity, SimulationOptions options) {
+        int[] capacities = options.machinePools.get(food.name);
+        if (capacities == null) {
+            capacities = new int[options.machinesPerFood];
+            Arrays.fill(capacities, machineCapacity);
+        }
+        Machine[] pool = new Machine[capacities.length];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = new Machine(type, food, capacities[i], options.machineExecutorMode,
+                    options.batchSize, options.batchWindowMillis, pool.length == 1 ? 0 : i + 1, this);
+        }
+        return new MachinePool(pool, options.machineRouting.get());
+    }
+}
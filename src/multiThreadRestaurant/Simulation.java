@@ -3,229 +3,265 @@ package multiThreadRestaurant;
 import multiThreadRestaurant.models.Cook;
 import multiThreadRestaurant.models.Customer;
 import multiThreadRestaurant.models.Food;
-import multiThreadRestaurant.models.FoodType;
-import multiThreadRestaurant.enumeration.MachineType;
 import multiThreadRestaurant.models.Machine;
+import multiThreadRestaurant.models.OrderTicket;
+import multiThreadRestaurant.enumeration.FoodType;
+import multiThreadRestaurant.enumeration.AdmissionPolicy;
+import multiThreadRestaurant.enumeration.MachineExecutorMode;
+import multiThreadRestaurant.exceptions.IllegalRestaurantStateException;
+import multiThreadRestaurant.metrics.StageTimings;
 import multiThreadRestaurant.service.SimulationEvent;
+import multiThreadRestaurant.service.TableAdmission;
 import multiThreadRestaurant.service.Validate;
+import multiThreadRestaurant.service.WorkStealingKitchen;
 
 import java.util.*;
 
 public class Simulation {
-    private static List<SimulationEvent> events;
-    public static HashMap<String, Machine> machines;
-    private static int tables;
-    private static final Object frontDoor = new Object(); // an instanceLock object for synchronizing on entering and leaving customers
-    private static volatile int numCustomers = 0;
-    private static final Object orderLock = new Object();
-    private static LinkedList<Integer> orderList = new LinkedList<>();
-    private static HashMap<Integer, List<Food>> ordersPlaced = new HashMap<>();
-    private static HashMap<Cook, List<Food>> cookOrderClaim = new HashMap<>();
-    private static HashMap<Cook, Integer> cookOrderNumClaim = new HashMap<>();
-    private static final Object customerLock = new Object();
-    private static List<Integer> completedOrders = new ArrayList<>();
-    private static final Object cookingLock = new Object();
-    private static HashMap<Integer, List<Food>> ordersCooked = new HashMap<>();
-    private static HashMap<Integer, List<Food>> checkedOrdersCooked = new HashMap<>();
-
-    public synchronized static void logEvent(SimulationEvent event) {
-        events.add(event);
-        System.out.println(event);
-    }
-
-    public static boolean handleCustomerEntrance() {
-        synchronized (frontDoor) {
-            if (numCustomers < tables) {
-                numCustomers++;
-                return true;
-            } else {
-                return false;
-            }
+    private static volatile Restaurant restaurant; // the restaurant of the current or last run, null before the first
+
+    /**
+     * The restaurant of the current or last run; throws if no run has
+     * started yet.
+     */
+    private static Restaurant current() {
+        Restaurant current = restaurant;
+        if (current == null) {
+            throw new IllegalRestaurantStateException("No restaurant is open: no simulation has run yet", 500);
         }
+        return current;
+    }
+
+    /**
+     * Times the order lock has been taken during the current or last run.
+     */
+    public static long orderLockAcquisitions() {
+        return current().orderLockAcquisitions();
+    }
+
+    /**
+     * The cooks of the current or last run.
+     */
+    public static Cook[] getCooks() {
+        return current().getCooks();
+    }
+
+    public static TableAdmission getTableAdmission() {
+        return current().getTableAdmission();
+    }
+
+    public static StageTimings getStageTimings() {
+        return current().getStageTimings();
+    }
+
+    /**
+     * The work-stealing kitchen of the current or last run, or null if cooks
+     * each saw their own orders through.
+     */
+    public static WorkStealingKitchen getKitchen() {
+        return current().getKitchen();
+    }
+
+    /**
+     * The restaurant of the current or last run.
+     */
+    public static Restaurant getRestaurant() {
+        return current();
+    }
+
+    /*
+     * The static entry points from before restaurants became instances. Each
+     * delegates to the restaurant of the current or last run, and throws
+     * IllegalRestaurantStateException before the first run.
+     */
+
+    /** @deprecated use {@link Restaurant#logEvent} */
+    @Deprecated
+    public static void logEvent(SimulationEvent event) {
+        current().logEvent(event);
+    }
+
+    /** @deprecated use {@link Restaurant#handleCustomerEntrance} */
+    @Deprecated
+    public static void handleCustomerEntrance(Customer customer) throws InterruptedException {
+        current().handleCustomerEntrance(customer);
     }
 
+    /** @deprecated use {@link Restaurant#handleCustomerLeft} */
+    @Deprecated
     public static void handleCustomerLeft() {
-        synchronized (frontDoor) {
-            numCustomers--;
-        }
+        current().handleCustomerLeft();
     }
 
+    /** @deprecated use {@link Restaurant#abort} */
+    @Deprecated
+    public static void abort(String reason) {
+        current().abort(reason);
+    }
+
+    /** @deprecated use {@link Restaurant#handlePlacedOrder(int, List)} */
+    @Deprecated
     public static void handlePlacedOrder(int orderNum, List<Food> order) {
-        synchronized (orderLock) {
-            orderList.add(orderNum);
-            ordersPlaced.put(orderNum, order);
-        }
+        current().handlePlacedOrder(orderNum, order);
     }
 
-    public static boolean isOrderAvailable(Cook cook) {
-        synchronized (orderLock) {
-            if (!ordersPlaced.isEmpty()) {
-                int orderNum = orderList.pop();
-                cookOrderClaim.put(cook, ordersPlaced.remove(orderNum));
-                cookOrderNumClaim.put(cook, orderNum);
-                return true;
-            } else {
-                return false;
-            }
-        }
+    /** @deprecated use {@link Restaurant#handlePlacedOrder(int, List, boolean)} */
+    @Deprecated
+    public static void handlePlacedOrder(int orderNum, List<Food> order, boolean vip) {
+        current().handlePlacedOrder(orderNum, order, vip);
     }
 
-    public static int handleCookGetOrderNum(Cook cook) {
-        synchronized (orderLock) {
-            return cookOrderNumClaim.remove(cook);
-        }
+    /** @deprecated use {@link Restaurant#claimNextOrder} */
+    @Deprecated
+    public static void claimNextOrder(OrderTicket ticket) throws InterruptedException {
+        current().claimNextOrder(ticket);
     }
 
-    public static List<Food> handleCookGettingOrder(Cook cook) {
-        synchronized (orderLock) {
-            return cookOrderClaim.remove(cook);
-        }
+    /** @deprecated use {@link Restaurant#tryClaimNextOrder} */
+    @Deprecated
+    public static boolean tryClaimNextOrder(OrderTicket ticket) {
+        return current().tryClaimNextOrder(ticket);
     }
 
+    /** @deprecated use {@link Restaurant#handleCompletedOrder} */
+    @Deprecated
     public static void handleCompletedOrder(Cook cook, int orderNum) {
-        synchronized (customerLock) {
-            completedOrders.add(orderNum);
-            Simulation.logEvent(SimulationEvent.cookCompletedOrder(cook, orderNum));
-        }
+        current().handleCompletedOrder(cook, orderNum);
     }
 
+    /** @deprecated use {@link Restaurant#checkOrderStatus} */
+    @Deprecated
     public static boolean checkOrderStatus(int orderNum) {
-        synchronized (customerLock) {
-            return completedOrders.contains(orderNum);
-        }
+        return current().checkOrderStatus(orderNum);
+    }
+
+    /** @deprecated use {@link Restaurant#awaitOrder} */
+    @Deprecated
+    public static void awaitOrder(int orderNum) throws InterruptedException {
+        current().awaitOrder(orderNum);
+    }
+
+    /** @deprecated use {@link Restaurant#cookOrder} */
+    @Deprecated
+    public static void cookOrder(Cook cook, int orderNum) throws InterruptedException {
+        current().cookOrder(cook, orderNum);
+    }
+
+    /** @deprecated use {@link Restaurant#queueOrder} */
+    @Deprecated
+    public static boolean queueOrder(Cook cook, int orderNum) {
+        return current().queueOrder(cook, orderNum);
+    }
+
+    /** @deprecated use {@link Restaurant#collectItem} */
+    @Deprecated
+    public static boolean collectItem(Cook cook, long task) {
+        return current().collectItem(cook, task);
+    }
+
+    /** @deprecated use {@link Restaurant#orderHandler} */
+    @Deprecated
+    public static Cook orderHandler(int orderNum) {
+        return current().orderHandler(orderNum);
     }
 
+    /** @deprecated use {@link Restaurant#updateCookedOrder} */
+    @Deprecated
     public static void updateCookedOrder(Machine machine, int orderNum, Food foodCooked) {
-        synchronized (cookingLock) {
-            if (ordersCooked.containsKey(orderNum)) {
-                ordersCooked.get(orderNum).add(foodCooked);
-            } else {
-                List<Food> cookedFoodList = new ArrayList<>();
-                cookedFoodList.add(foodCooked);
-                ordersCooked.put(orderNum, cookedFoodList);
-            }
-            logEvent(SimulationEvent.machineDoneFood(machine, foodCooked));
-        }
+        current().updateCookedOrder(machine, orderNum, foodCooked);
     }
 
-    public static boolean checkCookingStatus(Cook cook, int orderNum, Food food) {
-        synchronized (cookingLock) {
-            if (ordersCooked.containsKey(orderNum)) {
-                if(ordersCooked.get(orderNum).contains(food)) {
-                    ordersCooked.get(orderNum).remove(food);
-                    if (checkedOrdersCooked.containsKey(orderNum)) {
-                        checkedOrdersCooked.get(orderNum).add(food);
-                    } else {
-                        List<Food> cookedFoodList = new ArrayList<>();
-                        cookedFoodList.add(food);
-                        checkedOrdersCooked.put(orderNum, cookedFoodList);
-                    }
-                    logEvent(SimulationEvent.cookFinishedFood(cook, food, orderNum));
-                    machines.get(food.name).itemsCooking--;
-                    return true;
-                } else {
-                    return false;
-                }
-            } else {
-                return false;
-            }
+    /** @deprecated use {@link Restaurant#updateCookedBatch} */
+    @Deprecated
+    public static void updateCookedBatch(Machine machine, int[] orderNums) {
+        current().updateCookedBatch(machine, orderNums);
+    }
 
-        }
+    /** @deprecated use {@link Restaurant#flushMachine} */
+    @Deprecated
+    public static void flushMachine(Machine machine) {
+        current().flushMachine(machine);
     }
 
+    /** @deprecated use {@link Restaurant#getCompletedOrder} */
+    @Deprecated
     public static List<Food> getCompletedOrder(int orderNum) {
-        synchronized (cookingLock) {
-            return checkedOrdersCooked.remove(orderNum);
-        }
+        return current().getCompletedOrder(orderNum);
     }
 
-	public static List<SimulationEvent> runSimulation( int numCustomers, int numCooks, int numTables, int machineCapacity, boolean randomOrders) {
-        tables = numTables;
-		events = Collections.synchronizedList(new ArrayList<>());
-		logEvent(SimulationEvent.startSimulation(numCustomers, numCooks, numTables, machineCapacity));
-        assignFoodTypesToMachineType(machineCapacity);
-        Thread[] cooks = new Thread[numCooks];
-
-        for (int i = 0; i < numCooks; i++) {
-            cooks[i] = new Thread(new Cook("Cook " + (i + 1)));
-            cooks[i].start();
-        }
+    /** @deprecated use {@link Restaurant#assignFoodTypesToMachineType(int)} */
+    @Deprecated
+    public static void assignFoodTypesToMachineType(int machineCapacity) {
+        current().assignFoodTypesToMachineType(machineCapacity);
+    }
 
-		Thread[] customers = new Thread[numCustomers];
-		LinkedList<Food> order;
-		if (!randomOrders) {
-			order = new LinkedList<>();
-			order.add(FoodType.burger);
-			order.add(FoodType.fries);
-			order.add(FoodType.coffee);
-			order.add(FoodType.chicken);
-			for(int i = 0; i < customers.length; i++) {
-				customers[i] = new Thread(new Customer("Customer " + (i), order));
-			}
-		}
-		else {
-			for(int i = 0; i < customers.length; i++) {
-				Random rnd = new Random();
-				int burgersCount = rnd.nextInt(4);
-				int friesCount = rnd.nextInt(4);
-				int coffeeCount = rnd.nextInt(4);
-				int chickenCount = rnd.nextInt(4);
-				order = new LinkedList<>();
-				for (int b = 0; b < burgersCount; b++) {
-					order.add(FoodType.burger);
-				}
-				for (int f = 0; f < friesCount; f++) {
-					order.add(FoodType.fries);
-				}
-				for (int f = 0; f < coffeeCount; f++) {
-					order.add(FoodType.coffee);
-				}
-				for (int c = 0; c < chickenCount; c++) {
-					order.add(FoodType.chicken);
-				}
-				customers[i] = new Thread(new Customer("Customer " + (i), order));
-				customers[i].start();
-			}
-		}
-
-
-		try {
-			for (int i = 0; i < customers.length; i++) {
-			    customers[i].join();
-            }
-
-			for(int i = 0; i < cooks.length; i++) {
-			    cooks[i].interrupt();
-            }
-
-            for(int i = 0; i < cooks.length; i++) {
-                cooks[i].join();
-            }
-		}
-		catch(InterruptedException e) {
-			System.out.println("Simulation thread has been interrupted.");
-		}
-
-        Set<String> machinesList = machines.keySet();
-        for (String machine : machinesList) {
-            logEvent(SimulationEvent.machineEnding(machines.get(machine)));
-        }
+    /** @deprecated use {@link Restaurant#assignFoodTypesToMachineType(int, SimulationOptions)} */
+    @Deprecated
+    public static void assignFoodTypesToMachineType(int machineCapacity, MachineExecutorMode executorMode) {
+        current().assignFoodTypesToMachineType(machineCapacity, new SimulationOptions().machineExecutorMode(executorMode));
+    }
+
+    /** @deprecated use {@link Restaurant#assignFoodTypesToMachineType(int, SimulationOptions)} */
+    @Deprecated
+    public static void assignFoodTypesToMachineType(int machineCapacity, MachineExecutorMode executorMode,
+                                                    int batchSize, long batchWindowMillis) {
+        current().assignFoodTypesToMachineType(machineCapacity, new SimulationOptions()
+                .machineExecutorMode(executorMode).machineBatching(batchSize, batchWindowMillis));
+    }
 
-		logEvent(SimulationEvent.endSimulation());
+    /** @deprecated use {@link Restaurant#assignFoodTypesToMachineType(int, SimulationOptions)} */
+    @Deprecated
+    public static void assignFoodTypesToMachineType(int machineCapacity, SimulationOptions options) {
+        current().assignFoodTypesToMachineType(machineCapacity, options);
+    }
+
+	public static List<SimulationEvent> runSimulation( int numCustomers, int numCooks, int numTables, int machineCapacity, boolean randomOrders) {
+        return runSimulation(numCustomers, numCooks, numTables, machineCapacity, randomOrders, new SimulationOptions());
+    }
 
-		return events;
+	public static List<SimulationEvent> runSimulation( int numCustomers, int numCooks, int numTables, int machineCapacity, boolean randomOrders, SimulationOptions options) {
+        restaurant = new Restaurant();
+        return restaurant.run(numCustomers, numCooks, numTables, machineCapacity, randomOrders, options);
 	}
 
-    public static void assignFoodTypesToMachineType(int machineCapacity) {
-        machines = new HashMap<>();
-        machines.put(FoodType.chicken.name, new Machine(MachineType.OVEN, FoodType.chicken, machineCapacity));
-        logEvent(SimulationEvent.machineStarting(machines.get(FoodType.chicken.name), FoodType.chicken, machineCapacity));
-        machines.put(FoodType.coffee.name, new Machine(MachineType.FOUNTAIN, FoodType.coffee, machineCapacity));
-        logEvent(SimulationEvent.machineStarting(machines.get(FoodType.coffee.name), FoodType.coffee, machineCapacity));
-        machines.put(FoodType.fries.name, new Machine(MachineType.FRYER, FoodType.fries, machineCapacity));
-        logEvent(SimulationEvent.machineStarting(machines.get(FoodType.fries.name), FoodType.fries, machineCapacity));
-        machines.put(FoodType.burger.name, new Machine(MachineType.GRILL_PRESS, FoodType.burger, machineCapacity));
-        logEvent(SimulationEvent.machineStarting(machines.get(FoodType.burger.name), FoodType.burger, machineCapacity));
+    /**
+     * Customer number {@code i} ordering one of everything.
+     */
+    static Customer fixedCustomer(int i) {
+        LinkedList<Food> order = new LinkedList<>();
+        order.add(FoodType.burger);
+        order.add(FoodType.fries);
+        order.add(FoodType.coffee);
+        order.add(FoodType.chicken);
+        return new Customer("Customer " + (i), order);
+    }
+
+    /**
+     * Customer number {@code i} with up to three of each food, a party of one
+     * to six, and a one in ten chance of being a VIP.
+     */
+    static Customer randomCustomer(int i) {
+        Random rnd = new Random();
+        int burgersCount = rnd.nextInt(4);
+        int friesCount = rnd.nextInt(4);
+        int coffeeCount = rnd.nextInt(4);
+        int chickenCount = rnd.nextInt(4);
+        int partySize = 1 + rnd.nextInt(6);
+        boolean vip = rnd.nextInt(10) == 0;
+        LinkedList<Food> order = new LinkedList<>();
+        for (int b = 0; b < burgersCount; b++) {
+            order.add(FoodType.burger);
+        }
+        for (int f = 0; f < friesCount; f++) {
+            order.add(FoodType.fries);
+        }
+        for (int f = 0; f < coffeeCount; f++) {
+            order.add(FoodType.coffee);
+        }
+        for (int c = 0; c < chickenCount; c++) {
+            order.add(FoodType.chicken);
+        }
+        return new Customer("Customer " + (i), order, partySize, vip);
     }
 
     public static void main(String args[]) {
@@ -235,7 +271,9 @@ public class Simulation {
             int numTables = 5;
             int machineCapacity = 4;
             boolean randomOrders = true;
-            System.out.println("Did it work? " + Validate.validateSimulation(runSimulation(numCustomers, numCooks, numTables, machineCapacity, randomOrders)));
+            SimulationOptions options = new SimulationOptions().admissionPolicy(AdmissionPolicy.FIFO).stageTimings(true);
+            System.out.println("Did it work? " + Validate.validateSimulation(runSimulation(numCustomers, numCooks, numTables, machineCapacity, randomOrders, options)));
+            System.out.println(getTableAdmission().report());
         } catch (Exception e) {
             e.printStackTrace();
         }
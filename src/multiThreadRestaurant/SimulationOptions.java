@@ -0,0 +1,269 @@
+package multiThreadRestaurant;
+
+import multiThreadRestaurant.enumeration.AdmissionPolicy;
+import multiThreadRestaurant.enumeration.ExecutionMode;
+import multiThreadRestaurant.enumeration.MachineExecutorMode;
+import multiThreadRestaurant.service.ArrivalProcess;
+import multiThreadRestaurant.service.EventSink;
+import multiThreadRestaurant.models.Food;
+import multiThreadRestaurant.service.FifoScheduling;
+import multiThreadRestaurant.service.MachineRouter;
+import multiThreadRestaurant.service.OrderSchedulingPolicy;
+import multiThreadRestaurant.service.RoundRobinRouter;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Tuning knobs for {@link Simulation#runSimulation}. Everything defaults to
+ * the behaviour of the plain five-argument call.
+ */
+public class SimulationOptions {
+    public AdmissionPolicy admissionPolicy = AdmissionPolicy.FIFO;
+    public Supplier<OrderSchedulingPolicy> orderScheduling = FifoScheduling::new;
+    public MachineExecutorMode machineExecutorMode = MachineExecutorMode.PLATFORM_POOL;
+    public ExecutionMode executionMode = ExecutionMode.PLATFORM;
+    public double clockSpeed = 1;
+    public Supplier<ArrivalProcess> arrivals = null;
+    public int batchSize = 1;
+    public long batchWindowMillis = 0;
+    public boolean workStealing = false;
+    public int machinesPerFood = 1;
+    public Map<String, int[]> machinePools = new HashMap<>();
+    public Supplier<MachineRouter> machineRouting = RoundRobinRouter::new;
+    public boolean printEvents = true;
+    public boolean keepEvents = true;
+    public Path eventFile = null;
+    public Path eventJournal = null;
+    public List<EventSink> eventSinks = new ArrayList<>();
+    public int eventRingSize = 1 << 16;
+    public boolean validateOnline = false;
+    public boolean stageTimings = false;
+    public boolean jmx = false;
+    public boolean failFast = true;
+
+    /**
+     * An independent copy: later changes to either don't show in the other.
+     * Sinks are shared, the list holding them is not.
+     */
+    public SimulationOptions copy() {
+        SimulationOptions copy = new SimulationOptions();
+        copy.admissionPolicy = admissionPolicy;
+        copy.orderScheduling = orderScheduling;
+        copy.machineExecutorMode = machineExecutorMode;
+        copy.executionMode = executionMode;
+        copy.clockSpeed = clockSpeed;
+        copy.arrivals = arrivals;
+        copy.batchSize = batchSize;
+        copy.batchWindowMillis = batchWindowMillis;
+        copy.workStealing = workStealing;
+        copy.machinesPerFood = machinesPerFood;
+        copy.machinePools = new HashMap<>(machinePools);
+        copy.machineRouting = machineRouting;
+        copy.printEvents = printEvents;
+        copy.keepEvents = keepEvents;
+        copy.eventFile = eventFile;
+        copy.eventJournal = eventJournal;
+        copy.eventSinks = new ArrayList<>(eventSinks);
+        copy.eventRingSize = eventRingSize;
+        copy.validateOnline = validateOnline;
+        copy.stageTimings = stageTimings;
+        copy.jmx = jmx;
+        copy.failFast = failFast;
+        return copy;
+    }
+
+    public SimulationOptions admissionPolicy(AdmissionPolicy admissionPolicy) {
+        this.admissionPolicy = admissionPolicy;
+        return this;
+    }
+
+    /**
+     * How cooks pick among waiting orders. Takes a factory because policies
+     * keep state; each run gets a fresh one.
+     */
+    public SimulationOptions orderScheduling(Supplier<OrderSchedulingPolicy> orderScheduling) {
+        this.orderScheduling = orderScheduling;
+        return this;
+    }
+
+    public SimulationOptions machineExecutorMode(MachineExecutorMode machineExecutorMode) {
+        this.machineExecutorMode = machineExecutorMode;
+        return this;
+    }
+
+    /**
+     * Picks the kind of thread customers and cooks run on. VIRTUAL also moves
+     * machine jobs onto virtual threads; set {@link #machineExecutorMode}
+     * afterwards to override that. DISCRETE_EVENT runs the whole restaurant
+     * on a virtual clock, with SIMULATED machines, as fast as the CPU allows.
+     */
+    public SimulationOptions executionMode(ExecutionMode executionMode) {
+        if (executionMode == ExecutionMode.VIRTUAL) {
+            this.machineExecutorMode = MachineExecutorMode.VIRTUAL;
+        } else if (executionMode == ExecutionMode.DISCRETE_EVENT) {
+            this.machineExecutorMode = MachineExecutorMode.SIMULATED;
+        } else if (this.executionMode == ExecutionMode.DISCRETE_EVENT) {
+            this.machineExecutorMode = MachineExecutorMode.PLATFORM_POOL;
+        }
+        this.executionMode = executionMode;
+        return this;
+    }
+
+    /**
+     * Runs the restaurant's clock {@code speed} times faster than real time,
+     * from 0.01x to 100x: cook times and batch windows shrink by that factor
+     * on the wall, while event timestamps stay in simulated time. Ignored by
+     * DISCRETE_EVENT runs, which go as fast as they can anyway.
+     */
+    public SimulationOptions clockSpeed(double speed) {
+        this.clockSpeed = speed;
+        return this;
+    }
+
+    /**
+     * Customers arrive over time, when each run's own arrival process says
+     * so, instead of all at once. The run's customer count becomes a cap,
+     * and the process may end it sooner.
+     */
+    public SimulationOptions arrivals(Supplier<ArrivalProcess> arrivals) {
+        this.arrivals = arrivals;
+        return this;
+    }
+
+    /**
+     * Lets every machine cook up to {@code batchSize} items of its food in
+     * one cycle, holding queued items up to {@code windowMillis} for a batch
+     * to fill. Each item of a batch still takes a slot, so a batch is never
+     * larger than the machine's capacity. A batch size of 1 turns batching off.
+     */
+    public SimulationOptions machineBatching(int batchSize, long windowMillis) {
+        this.batchSize = batchSize;
+        this.batchWindowMillis = windowMillis;
+        return this;
+    }
+
+    /**
+     * Cooks stop seeing each order through themselves: they queue an order's
+     * items and go back for more work, and taking a finished item off its
+     * machine is a task any idle cook may steal. Can't be combined with
+     * machine batching.
+     */
+    public SimulationOptions workStealing(boolean workStealing) {
+        this.workStealing = workStealing;
+        return this;
+    }
+
+    /**
+     * Gives every food type {@code count} machines of the run's machine
+     * capacity, unless {@link #machinePool} says otherwise for that food.
+     */
+    public SimulationOptions machinesPerFood(int count) {
+        this.machinesPerFood = count;
+        return this;
+    }
+
+    /**
+     * Cooks {@code food} on one machine per entry of {@code capacities},
+     * e.g. three fryers holding 4, 2 and 2.
+     */
+    public SimulationOptions machinePool(Food food, int... capacities) {
+        this.machinePools.put(food.name, capacities.clone());
+        return this;
+    }
+
+    /**
+     * How items are spread over the machines of a pool. Takes a factory
+     * because routers keep state; each pool gets a fresh one.
+     */
+    public SimulationOptions machineRouting(Supplier<MachineRouter> machineRouting) {
+        this.machineRouting = machineRouting;
+        return this;
+    }
+
+    /**
+     * Whether the event log echoes every event to the console. Printing is
+     * done by the log's consumer thread, never by the simulation itself.
+     */
+    public SimulationOptions printEvents(boolean printEvents) {
+        this.printEvents = printEvents;
+        return this;
+    }
+
+    /**
+     * Whether runSimulation collects and returns the full event list.
+     */
+    public SimulationOptions keepEvents(boolean keepEvents) {
+        this.keepEvents = keepEvents;
+        return this;
+    }
+
+    public SimulationOptions eventFile(Path eventFile) {
+        this.eventFile = eventFile;
+        return this;
+    }
+
+    /**
+     * Also writes every event to a binary {@link multiThreadRestaurant.service.EventJournal}
+     * at the given path.
+     */
+    public SimulationOptions eventJournal(Path eventJournal) {
+        this.eventJournal = eventJournal;
+        return this;
+    }
+
+    public SimulationOptions addEventSink(EventSink sink) {
+        this.eventSinks.add(sink);
+        return this;
+    }
+
+    public SimulationOptions eventRingSize(int eventRingSize) {
+        this.eventRingSize = eventRingSize;
+        return this;
+    }
+
+    /**
+     * Checks Validate's rules on the live event stream while the simulation
+     * runs; runSimulation throws InvalidSimulationException on a violation.
+     * Pair with keepEvents(false) for long runs.
+     */
+    public SimulationOptions validateOnline(boolean validateOnline) {
+        this.validateOnline = validateOnline;
+        return this;
+    }
+
+    /**
+     * Times every order's queue wait, machine waits, cook times and sojourn
+     * from the live event stream and prints the percentiles when the
+     * simulation ends. The timings run on the event log's consumer thread,
+     * which costs next to nothing next to a threaded run; a discrete-event
+     * run does nothing but bookkeeping, so there they are a noticeable share
+     * of its CPU time.
+     */
+    public SimulationOptions stageTimings(boolean stageTimings) {
+        this.stageTimings = stageTimings;
+        return this;
+    }
+
+    /**
+     * Publishes live MBeans for every machine, the order queue and the
+     * tables while the run is open, to watch in JConsole or VisualVM.
+     */
+    public SimulationOptions jmx(boolean jmx) {
+        this.jmx = jmx;
+        return this;
+    }
+
+    /**
+     * With online validation, whether the first violation stops the
+     * simulation right away instead of letting it run to the end.
+     */
+    public SimulationOptions failFast(boolean failFast) {
+        this.failFast = failFast;
+        return this;
+    }
+}
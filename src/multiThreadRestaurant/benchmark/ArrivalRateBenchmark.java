@@ -0,0 +1,47 @@
+package multiThreadRestaurant.benchmark;
+
+import multiThreadRestaurant.Simulation;
+import multiThreadRestaurant.SimulationOptions;
+import multiThreadRestaurant.enumeration.ExecutionMode;
+import multiThreadRestaurant.service.PoissonArrivals;
+
+/**
+ * Offered load against achieved throughput and customer sojourn for one
+ * kitchen, with customers arriving as a Poisson stream at rising rates.
+ * Runs on the discrete-event engine so long streams take seconds. Below
+ * saturation the kitchen keeps up and sojourn stays flat; past it
+ * throughput levels off and sojourn grows with the length of the run.
+ *
+ * Usage: ArrivalRateBenchmark [customers] [cooks] [tables] [capacity] [customers per second...]
+ */
+public class ArrivalRateBenchmark {
+    public static void main(String[] args) {
+        int numCustomers = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int numCooks = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int numTables = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        int machineCapacity = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        double[] rates = { 1, 2, 3, 4, 5, 6, 8 };
+        if (args.length > 4) {
+            rates = new double[args.length - 4];
+            for (int i = 4; i < args.length; i++) {
+                rates[i - 4] = Double.parseDouble(args[i]);
+            }
+        }
+
+        System.out.println("customers=" + numCustomers + " cooks=" + numCooks + " tables=" + numTables
+                + " capacity=" + machineCapacity);
+        for (double rate : rates) {
+            OrderSchedulingBenchmark.SojournSink sojourn = new OrderSchedulingBenchmark.SojournSink();
+            DiscreteEventBenchmark.Span span = new DiscreteEventBenchmark.Span();
+            RunStats.measure(() -> Simulation.runSimulation(numCustomers, numCooks, numTables, machineCapacity, true,
+                    new SimulationOptions().executionMode(ExecutionMode.DISCRETE_EVENT)
+                            .arrivals(() -> new PoissonArrivals(rate, 42))
+                            .printEvents(false).keepEvents(false).validateOnline(true)
+                            .addEventSink(sojourn).addEventSink(span)));
+            System.out.printf("offered=%5.2f/s achieved=%5.2f/s | customer sojourn p50=%dms p99=%dms | table wait p99=%dus%n",
+                    rate, numCustomers / ((span.last - span.first) / 1e9),
+                    sojourn.customers.percentile(50), sojourn.customers.percentile(99),
+                    Simulation.getTableAdmission().waitTimes().percentile(99));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package multiThreadRestaurant.benchmark;
+
+import multiThreadRestaurant.Simulation;
+import multiThreadRestaurant.SimulationOptions;
+
+/**
+ * The same run at several clock speeds. Wall time should shrink with the
+ * speed while simulated duration and customer sojourn, both measured on
+ * event timestamps, hold steady until scheduling overhead stops being
+ * small next to the scaled cook times.
+ *
+ * Usage: ClockSpeedBenchmark [customers] [cooks] [tables] [capacity] [speeds...]
+ */
+public class ClockSpeedBenchmark {
+    public static void main(String[] args) {
+        int numCustomers = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+        int numCooks = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int numTables = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        int machineCapacity = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        double[] speeds = { 1, 10, 100 };
+        if (args.length > 4) {
+            speeds = new double[args.length - 4];
+            for (int i = 4; i < args.length; i++) {
+                speeds[i - 4] = Double.parseDouble(args[i]);
+            }
+        }
+
+        System.out.println("customers=" + numCustomers + " cooks=" + numCooks + " tables=" + numTables
+                + " capacity=" + machineCapacity);
+        for (double speed : speeds) {
+            OrderSchedulingBenchmark.SojournSink sojourn = new OrderSchedulingBenchmark.SojournSink();
+            DiscreteEventBenchmark.Span span = new DiscreteEventBenchmark.Span();
+            RunStats stats = RunStats.measure(() -> Simulation.runSimulation(numCustomers, numCooks, numTables,
+                    machineCapacity, true, new SimulationOptions().clockSpeed(speed)
+                            .printEvents(false).keepEvents(false).validateOnline(true)
+                            .addEventSink(sojourn).addEventSink(span)));
+            System.out.printf("speed=%-6s wall=%.2fs simulated=%.1fs | customer sojourn p50=%dms p99=%dms (simulated)%n",
+                    speed + "x", stats.wallSeconds(), (span.last - span.first) / 1e9,
+                    sojourn.customers.percentile(50), sojourn.customers.percentile(99));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package multiThreadRestaurant.benchmark;
+
+import multiThreadRestaurant.Simulation;
+import multiThreadRestaurant.SimulationOptions;
+import multiThreadRestaurant.models.Cook;
+
+/**
+ * Per-cook CPU utilization and order-lock acquisitions per order. A cook
+ * that waits for its machines without polling should stay near 0% CPU
+ * however long its items take.
+ *
+ * Usage: CookSchedulingBenchmark [customers] [cooks] [tables] [capacity] [rounds]
+ */
+public class CookSchedulingBenchmark {
+    public static void main(String[] args) {
+        int numCustomers = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+        int numCooks = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int numTables = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int machineCapacity = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+        int rounds = args.length > 4 ? Integer.parseInt(args[4]) : 3;
+
+        System.out.println("customers=" + numCustomers + " cooks=" + numCooks + " tables=" + numTables
+                + " capacity=" + machineCapacity);
+        for (int round = 1; round <= rounds; round++) {
+            RunStats stats = RunStats.measure(() -> Simulation.runSimulation(numCustomers, numCooks, numTables,
+                    machineCapacity, true, new SimulationOptions().printEvents(false).keepEvents(false).validateOnline(true)));
+            StringBuilder perCook = new StringBuilder();
+            for (Cook cook : Simulation.getCooks()) {
+                perCook.append(String.format(" cook%d=%.2f%%/%d orders", cook.getId(),
+                        100.0 * cook.getCpuNanos() / stats.wallNanos, cook.getOrdersCompleted()));
+            }
+            System.out.printf("round %d: %s lock acquisitions/order=%.1f%s%n", round, stats,
+                    (double) Simulation.orderLockAcquisitions() / numCustomers, perCook);
+        }
+    }
+}
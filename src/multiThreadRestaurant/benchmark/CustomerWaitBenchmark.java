@@ -0,0 +1,31 @@
+package multiThreadRestaurant.benchmark;
+
+import multiThreadRestaurant.Simulation;
+import multiThreadRestaurant.service.Validate;
+
+/**
+ * Measures how much CPU the simulation burns while customers wait for a
+ * table and for their order, and how many customers per second it serves.
+ * Run the same arguments on an older checkout to get the "before" numbers.
+ *
+ * Usage: CustomerWaitBenchmark [customers] [cooks] [tables] [capacity] [rounds]
+ */
+public class CustomerWaitBenchmark {
+    public static void main(String[] args) {
+        int numCustomers = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int numCooks = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int numTables = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        int machineCapacity = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        int rounds = args.length > 4 ? Integer.parseInt(args[4]) : 3;
+
+        System.out.println("customers=" + numCustomers + " cooks=" + numCooks + " tables=" + numTables
+                + " capacity=" + machineCapacity);
+        for (int round = 1; round <= rounds; round++) {
+            boolean[] valid = new boolean[1];
+            RunStats stats = RunStats.measure(() -> valid[0] = Validate.validateSimulation(
+                    Simulation.runSimulation(numCustomers, numCooks, numTables, machineCapacity, true)));
+            System.out.printf("round %d: %s throughput=%.1f customers/s valid=%b%n",
+                    round, stats, numCustomers / stats.wallSeconds(), valid[0]);
+        }
+    }
+}
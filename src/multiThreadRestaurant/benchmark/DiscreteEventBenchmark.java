@@ -0,0 +1,77 @@
+package multiThreadRestaurant.benchmark;
+
+import multiThreadRestaurant.Simulation;
+import multiThreadRestaurant.SimulationOptions;
+import multiThreadRestaurant.enumeration.ExecutionMode;
+import multiThreadRestaurant.service.EventSink;
+import multiThreadRestaurant.service.SimulationEvent;
+
+import java.util.List;
+
+/**
+ * Simulated time per wall-clock second of the discrete-event engine against
+ * a threaded run, which can never beat 1:1. Both validate online. At the
+ * same customer count their sojourn percentiles should roughly agree, since
+ * event timestamps are virtual in a discrete-event run; larger runs queue
+ * every customer at once, so their sojourns grow with the count.
+ *
+ * Usage: DiscreteEventBenchmark [threaded customers] [cooks] [tables] [capacity] [discrete-event customers...]
+ */
+public class DiscreteEventBenchmark {
+    public static void main(String[] args) {
+        int threadedCustomers = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+        int numCooks = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int numTables = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        int machineCapacity = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        int[] customerCounts = { 1_000, 10_000, 100_000 };
+        if (args.length > 4) {
+            customerCounts = new int[args.length - 4];
+            for (int i = 4; i < args.length; i++) {
+                customerCounts[i - 4] = Integer.parseInt(args[i]);
+            }
+        }
+
+        System.out.println("cooks=" + numCooks + " tables=" + numTables + " capacity=" + machineCapacity);
+        run("threaded", threadedCustomers, numCooks, numTables, machineCapacity, new SimulationOptions());
+        run("discrete-event", threadedCustomers, numCooks, numTables, machineCapacity,
+                new SimulationOptions().executionMode(ExecutionMode.DISCRETE_EVENT));
+        for (int numCustomers : customerCounts) {
+            run("discrete-event", numCustomers, numCooks, numTables, machineCapacity,
+                    new SimulationOptions().executionMode(ExecutionMode.DISCRETE_EVENT));
+        }
+    }
+
+    private static void run(String label, int numCustomers, int numCooks, int numTables, int machineCapacity,
+                            SimulationOptions options) {
+        OrderSchedulingBenchmark.SojournSink sojourn = new OrderSchedulingBenchmark.SojournSink();
+        Span span = new Span();
+        RunStats stats = RunStats.measure(() -> Simulation.runSimulation(numCustomers, numCooks, numTables,
+                machineCapacity, true, options.printEvents(false).keepEvents(false).validateOnline(true)
+                        .addEventSink(sojourn).addEventSink(span)));
+        double simulatedSeconds = (span.last - span.first) / 1e9;
+        System.out.printf("%-14s customers=%-7d simulated=%.0fs wall=%.2fs -> %.0fx real time, %.2f simulated hours per wall second | %.0f events/s | customer sojourn p50=%dms p99=%dms%n",
+                label, numCustomers, simulatedSeconds, stats.wallSeconds(),
+                simulatedSeconds / stats.wallSeconds(), simulatedSeconds / 3600 / stats.wallSeconds(), span.events / stats.wallSeconds(),
+                sojourn.customers.percentile(50), sojourn.customers.percentile(99));
+    }
+
+    /**
+     * Counts events and the time between the first and last of them.
+     */
+    static class Span implements EventSink {
+        long events = 0;
+        long first = -1;
+        long last = -1;
+
+        @Override
+        public void write(List<SimulationEvent> batch) {
+            for (SimulationEvent e : batch) {
+                if (first < 0) {
+                    first = e.getTimestamp();
+                }
+                last = e.getTimestamp();
+            }
+            events += batch.size();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package multiThreadRestaurant.benchmark;
+
+import multiThreadRestaurant.Simulation;
+import multiThreadRestaurant.SimulationOptions;
+import multiThreadRestaurant.enumeration.ExecutionMode;
+import multiThreadRestaurant.service.SimulationEvent;
+
+import java.util.List;
+
+/**
+ * One large run in a single execution mode, reporting wall time and peak
+ * RSS. Peak RSS is per process, so compare modes by launching one JVM per
+ * mode, e.g. {@code ExecutionModeBenchmark VIRTUAL 1000000 2000 20000 5000}.
+ *
+ * Usage: ExecutionModeBenchmark PLATFORM|VIRTUAL [customers] [cooks] [tables] [capacity]
+ */
+public class ExecutionModeBenchmark {
+    public static void main(String[] args) {
+        ExecutionMode mode = args.length > 0 ? ExecutionMode.valueOf(args[0]) : ExecutionMode.VIRTUAL;
+        int numCustomers = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int numCooks = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int numTables = args.length > 3 ? Integer.parseInt(args[3]) : 2000;
+        int machineCapacity = args.length > 4 ? Integer.parseInt(args[4]) : 500;
+
+        SimulationOptions options = new SimulationOptions().executionMode(mode);
+        int[] eventCount = new int[1];
+        RunStats stats = RunStats.measure(() -> {
+            List<SimulationEvent> events = Simulation.runSimulation(numCustomers, numCooks, numTables, machineCapacity, true, options);
+            eventCount[0] = events.size();
+        });
+        System.out.printf("%s customers=%d cooks=%d tables=%d capacity=%d events=%d %s peakRss=%.1fMB%n",
+                mode, numCustomers, numCooks, numTables, machineCapacity, eventCount[0], stats,
+                RunStats.peakRssBytes() / 1048576.0);
+    }
+}
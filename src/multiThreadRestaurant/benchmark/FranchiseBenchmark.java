@@ -0,0 +1,54 @@
+package multiThreadRestaurant.benchmark;
+
+import multiThreadRestaurant.Franchise;
+import multiThreadRestaurant.Simulation;
+import multiThreadRestaurant.SimulationOptions;
+import multiThreadRestaurant.service.CustomerDispatcher;
+import multiThreadRestaurant.service.HashDispatcher;
+import multiThreadRestaurant.service.ShortestQueueDispatcher;
+import multiThreadRestaurant.service.SimulationEvent;
+import multiThreadRestaurant.service.Validate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Throughput of a franchise as it grows, with the customer count growing in
+ * step, against one restaurant with the same cooks, tables and machines in
+ * total. The merged franchise stream is validated after every run.
+ *
+ * Usage: FranchiseBenchmark [customers per shard] [cooks] [tables] [capacity] [shard counts...]
+ */
+public class FranchiseBenchmark {
+    public static void main(String[] args) {
+        int customersPerShard = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int numCooks = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int numTables = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int machineCapacity = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+        int[] shardCounts = args.length > 4 ? new int[args.length - 4] : new int[] { 1, 2, 4 };
+        for (int i = 4; i < args.length; i++) {
+            shardCounts[i - 4] = Integer.parseInt(args[i]);
+        }
+
+        System.out.println("per shard: customers=" + customersPerShard + " cooks=" + numCooks + " tables=" + numTables
+                + " capacity=" + machineCapacity + "; cores=" + Runtime.getRuntime().availableProcessors());
+        for (int shards : shardCounts) {
+            int numCustomers = customersPerShard * shards;
+            RunStats single = RunStats.measure(() -> Simulation.runSimulation(numCustomers, numCooks * shards,
+                    numTables * shards, machineCapacity, true, new SimulationOptions().machinesPerFood(shards)
+                            .printEvents(false).keepEvents(false)));
+            System.out.printf("shards=%d %-14s %s throughput=%.2f customers/s%n",
+                    shards, "one-restaurant", single, numCustomers / single.wallSeconds());
+            for (CustomerDispatcher dispatcher : new CustomerDispatcher[] { new ShortestQueueDispatcher(), new HashDispatcher() }) {
+                Franchise franchise = new Franchise(shards, dispatcher);
+                AtomicReference<List<SimulationEvent>> events = new AtomicReference<>();
+                RunStats stats = RunStats.measure(() -> events.set(franchise.run(numCustomers, numCooks, numTables,
+                        machineCapacity, true, new SimulationOptions().printEvents(false))));
+                System.out.printf("shards=%d %-14s %s throughput=%.2f customers/s dispatched=%s valid=%b%n",
+                        shards, dispatcher, stats, numCustomers / stats.wallSeconds(),
+                        Arrays.toString(franchise.getDispatched()), Validate.findViolation(events.get()) == null);
+            }
+        }
+    }
+}
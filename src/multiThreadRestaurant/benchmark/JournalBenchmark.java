@@ -0,0 +1,70 @@
+package multiThreadRestaurant.benchmark;
+
+import multiThreadRestaurant.service.EventJournal;
+import multiThreadRestaurant.service.SimulationEvent;
+import multiThreadRestaurant.service.StreamingValidator;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Compares keeping a synthetic log as SimulationEvent objects with writing
+ * it to a binary EventJournal: retained heap against file size, and
+ * validating the object list against replaying the journal.
+ *
+ * Usage: JournalBenchmark [events] [journal path]
+ */
+public class JournalBenchmark {
+    public static void main(String[] args) throws Exception {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path path = args.length > 1 ? Path.of(args[1]) : Files.createTempFile("events", ".journal");
+
+        long heapBefore = usedHeapAfterGc();
+        List<SimulationEvent> events = SyntheticEvents.validRun(size, 42);
+        long retained = usedHeapAfterGc() - heapBefore;
+        System.out.printf("objects: events=%d retained=%.1fMB (%.0f bytes/event)%n",
+                events.size(), retained / 1048576.0, (double) retained / events.size());
+
+        EventJournal[] journal = new EventJournal[1];
+        RunStats write = RunStats.measure(() -> {
+            journal[0] = new EventJournal(path);
+            for (int from = 0; from < events.size(); from += 1024) {
+                journal[0].write(events.subList(from, Math.min(events.size(), from + 1024)));
+            }
+            journal[0].close();
+        });
+        long bytes = Files.size(path);
+        System.out.printf("journal write: %s events/s=%.0f file=%.1fMB (%.0f bytes/event)%n", write,
+                events.size() / write.wallSeconds(), bytes / 1048576.0, (double) bytes / events.size());
+
+        for (int round = 0; round < 3; round++) {
+            StreamingValidator fromObjects = new StreamingValidator();
+            RunStats objects = RunStats.measure(() -> {
+                for (SimulationEvent event : events) {
+                    fromObjects.accept(event);
+                }
+                fromObjects.finish();
+            });
+            StreamingValidator fromJournal = new StreamingValidator();
+            RunStats replay = RunStats.measure(() -> {
+                EventJournal.replay(path, fromJournal::accept);
+                fromJournal.finish();
+            });
+            System.out.printf("round=%d validate objects: %s valid=%b | replay journal: %s valid=%b events/s=%.0f%n",
+                    round, objects, fromObjects.isValid(), replay, fromJournal.isValid(),
+                    fromJournal.eventsChecked() / replay.wallSeconds());
+        }
+        if (args.length < 2) {
+            Files.delete(path);
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,277 @@
+package multiThreadRestaurant.benchmark;
+
+import multiThreadRestaurant.Simulation;
+import multiThreadRestaurant.SimulationOptions;
+import multiThreadRestaurant.enumeration.ExecutionMode;
+import multiThreadRestaurant.exceptions.InvalidSimulationException;
+
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Load-test driver: runs every configuration of a grid of customers, cooks,
+ * tables, machine capacities and order kinds a few times over, and writes
+ * one row per configuration to CSV and JSON with its throughput in orders
+ * per simulated second, customer sojourn percentiles, CPU time, allocation
+ * rate and peak live threads. Then it walks the cooks and tables axes of
+ * the grid and reports each knee: the value past which adding more raised
+ * throughput by less than the minimum gain.
+ *
+ * Runs on the discrete-event engine by default, so a whole grid takes
+ * seconds; mode=PLATFORM or mode=VIRTUAL runs real threads, best paired
+ * with a clock speed-up. Every run is validated online.
+ *
+ * Usage: LoadSweep [key=value[,value...]]...
+ * with keys and defaults
+ *   customers=200 cooks=1,2,3,4,6,8 tables=2,4,8,16 capacity=4 random=true
+ *   runs=3 mode=DISCRETE_EVENT speed=1 gain=0.05 csv=load-sweep.csv json=load-sweep.json
+ */
+public class LoadSweep {
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("customers", "200");
+        DEFAULTS.put("cooks", "1,2,3,4,6,8");
+        DEFAULTS.put("tables", "2,4,8,16");
+        DEFAULTS.put("capacity", "4");
+        DEFAULTS.put("random", "true");
+        DEFAULTS.put("runs", "3");
+        DEFAULTS.put("mode", "DISCRETE_EVENT");
+        DEFAULTS.put("speed", "1");
+        DEFAULTS.put("gain", "0.05");
+        DEFAULTS.put("csv", "load-sweep.csv");
+        DEFAULTS.put("json", "load-sweep.json");
+    }
+
+    /**
+     * One configuration of the grid and what its runs measured.
+     */
+    static class Point {
+        final int customers;
+        final int cooks;
+        final int tables;
+        final int capacity;
+        final boolean random;
+        double throughput; // orders per simulated second
+        long sojournP50; // ms
+        long sojournP90;
+        long sojournP99;
+        double cpuSeconds; // per run
+        double wallSeconds; // per run
+        double allocMBPerSecond;
+        int peakThreads;
+
+        Point(int customers, int cooks, int tables, int capacity, boolean random) {
+            this.customers = customers;
+            this.cooks = cooks;
+            this.tables = tables;
+            this.capacity = capacity;
+            this.random = random;
+        }
+
+        /**
+         * The configuration with {@code axis} left out, naming the line of
+         * the grid this point lies on.
+         */
+        String without(String axis) {
+            return "customers=" + customers
+                    + (axis.equals("cooks") ? "" : " cooks=" + cooks)
+                    + (axis.equals("tables") ? "" : " tables=" + tables)
+                    + " capacity=" + capacity + " random=" + random;
+        }
+    }
+
+    /**
+     * Where adding more of {@code axis} stopped paying off along one line of
+     * the grid; {@code value} is -1 if throughput was still climbing at the
+     * largest value tried.
+     */
+    static class Knee {
+        final String axis;
+        final String line;
+        final int value;
+        final double throughput;
+
+        Knee(String axis, String line, int value, double throughput) {
+            this.axis = axis;
+            this.line = line;
+            this.value = value;
+            this.throughput = throughput;
+        }
+
+        @Override
+        public String toString() {
+            return value < 0
+                    ? String.format(Locale.ROOT, "%s: no knee, still scaling at %.2f orders/s (%s)", axis, throughput, line)
+                    : String.format(Locale.ROOT, "%s: knee at %d, %.2f orders/s (%s)", axis, value, throughput, line);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> params = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0 || !DEFAULTS.containsKey(arg.substring(0, eq))) {
+                throw new InvalidSimulationException("Unknown sweep parameter: " + arg, 400);
+            }
+            params.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        int runs = Integer.parseInt(params.get("runs"));
+        ExecutionMode mode = ExecutionMode.valueOf(params.get("mode").toUpperCase(Locale.ROOT));
+        double speed = Double.parseDouble(params.get("speed"));
+        double minGain = Double.parseDouble(params.get("gain"));
+
+        List<Point> points = new ArrayList<>();
+        for (int customers : ints(params.get("customers"))) {
+            for (int capacity : ints(params.get("capacity"))) {
+                for (String random : params.get("random").split(",")) {
+                    for (int tables : ints(params.get("tables"))) {
+                        for (int cooks : ints(params.get("cooks"))) {
+                            points.add(new Point(customers, cooks, tables, capacity, Boolean.parseBoolean(random.trim())));
+                        }
+                    }
+                }
+            }
+        }
+
+        System.out.println(points.size() + " configurations x " + runs + " runs, " + mode + " at " + speed + "x");
+        for (Point point : points) {
+            measure(point, runs, mode, speed);
+            System.out.printf(Locale.ROOT, "customers=%d cooks=%d tables=%d capacity=%d random=%b | %7.2f orders/s | "
+                            + "sojourn p50=%dms p99=%dms | cpu=%.3fs alloc=%.1fMB/s peak threads=%d%n",
+                    point.customers, point.cooks, point.tables, point.capacity, point.random, point.throughput,
+                    point.sojournP50, point.sojournP99, point.cpuSeconds, point.allocMBPerSecond, point.peakThreads);
+        }
+
+        List<Knee> knees = new ArrayList<>();
+        knees.addAll(knees(points, "cooks", p -> p.cooks, minGain));
+        knees.addAll(knees(points, "tables", p -> p.tables, minGain));
+        knees.forEach(System.out::println);
+
+        Path csv = Path.of(params.get("csv"));
+        Path json = Path.of(params.get("json"));
+        writeCsv(csv, points);
+        writeJson(json, params, points, knees);
+        System.out.println("Wrote " + csv + " and " + json);
+    }
+
+    private static void measure(Point point, int runs, ExecutionMode mode, double speed) {
+        OrderSchedulingBenchmark.SojournSink sojourn = new OrderSchedulingBenchmark.SojournSink();
+        double simulatedSeconds = 0;
+        long cpuNanos = 0;
+        long wallNanos = 0;
+        long allocated = 0;
+        for (int run = 0; run < runs; run++) {
+            DiscreteEventBenchmark.Span span = new DiscreteEventBenchmark.Span();
+            RunStats stats = RunStats.measure(() -> Simulation.runSimulation(point.customers, point.cooks, point.tables,
+                    point.capacity, point.random,
+                    new SimulationOptions().executionMode(mode).clockSpeed(speed)
+                            .printEvents(false).keepEvents(false).validateOnline(true)
+                            .addEventSink(sojourn).addEventSink(span)));
+            simulatedSeconds += (span.last - span.first) / 1e9;
+            cpuNanos += stats.cpuNanos;
+            wallNanos += stats.wallNanos;
+            allocated += stats.allocatedBytes;
+            point.peakThreads = Math.max(point.peakThreads, stats.peakThreads);
+        }
+        point.throughput = (double) point.customers * runs / simulatedSeconds;
+        point.sojournP50 = sojourn.customers.percentile(50);
+        point.sojournP90 = sojourn.customers.percentile(90);
+        point.sojournP99 = sojourn.customers.percentile(99);
+        point.cpuSeconds = cpuNanos / 1e9 / runs;
+        point.wallSeconds = wallNanos / 1e9 / runs;
+        point.allocMBPerSecond = allocated / 1048576.0 / (wallNanos / 1e9);
+    }
+
+    /**
+     * The knee of every line of the grid along {@code axis}: the first value
+     * whose next step up gains less than {@code minGain} throughput.
+     */
+    static List<Knee> knees(List<Point> points, String axis, ToIntFunction<Point> value, double minGain) {
+        Map<String, List<Point>> lines = new LinkedHashMap<>();
+        for (Point point : points) {
+            lines.computeIfAbsent(point.without(axis), k -> new ArrayList<>()).add(point);
+        }
+        List<Knee> knees = new ArrayList<>();
+        for (Map.Entry<String, List<Point>> line : lines.entrySet()) {
+            List<Point> sorted = new ArrayList<>(line.getValue());
+            sorted.sort(Comparator.comparingInt(value));
+            if (sorted.size() < 2) {
+                continue;
+            }
+            Knee knee = null;
+            for (int i = 0; i + 1 < sorted.size() && knee == null; i++) {
+                Point here = sorted.get(i);
+                if (sorted.get(i + 1).throughput < here.throughput * (1 + minGain)) {
+                    knee = new Knee(axis, line.getKey(), value.applyAsInt(here), here.throughput);
+                }
+            }
+            Point last = sorted.get(sorted.size() - 1);
+            knees.add(knee != null ? knee : new Knee(axis, line.getKey(), -1, last.throughput));
+        }
+        return knees;
+    }
+
+    private static void writeCsv(Path path, List<Point> points) throws Exception {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(path))) {
+            out.println("customers,cooks,tables,capacity,random,throughput_orders_per_s,sojourn_p50_ms,sojourn_p90_ms,"
+                    + "sojourn_p99_ms,cpu_s,wall_s,alloc_mb_per_s,peak_threads");
+            for (Point p : points) {
+                out.println(String.format(Locale.ROOT, "%d,%d,%d,%d,%b,%.3f,%d,%d,%d,%.4f,%.4f,%.1f,%d",
+                        p.customers, p.cooks, p.tables, p.capacity, p.random, p.throughput,
+                        p.sojournP50, p.sojournP90, p.sojournP99, p.cpuSeconds, p.wallSeconds,
+                        p.allocMBPerSecond, p.peakThreads));
+            }
+        }
+    }
+
+    private static void writeJson(Path path, Map<String, String> params, List<Point> points, List<Knee> knees) throws Exception {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(path))) {
+            out.println("{");
+            out.println("  \"params\": {");
+            int i = 0;
+            for (Map.Entry<String, String> param : params.entrySet()) {
+                out.printf("    \"%s\": \"%s\"%s%n", param.getKey(), param.getValue().replace("\\", "\\\\").replace("\"", "\\\""),
+                        ++i < params.size() ? "," : "");
+            }
+            out.println("  },");
+            out.println("  \"results\": [");
+            for (i = 0; i < points.size(); i++) {
+                Point p = points.get(i);
+                out.println(String.format(Locale.ROOT, "    {\"customers\": %d, \"cooks\": %d, \"tables\": %d, \"capacity\": %d, "
+                                + "\"random\": %b, \"throughputOrdersPerS\": %.3f, \"sojournP50Ms\": %d, \"sojournP90Ms\": %d, "
+                                + "\"sojournP99Ms\": %d, \"cpuS\": %.4f, \"wallS\": %.4f, \"allocMBPerS\": %.1f, \"peakThreads\": %d}%s",
+                        p.customers, p.cooks, p.tables, p.capacity, p.random, p.throughput,
+                        p.sojournP50, p.sojournP90, p.sojournP99, p.cpuSeconds, p.wallSeconds,
+                        p.allocMBPerSecond, p.peakThreads, i + 1 < points.size() ? "," : ""));
+            }
+            out.println("  ],");
+            out.println("  \"knees\": [");
+            for (i = 0; i < knees.size(); i++) {
+                Knee k = knees.get(i);
+                out.println(String.format(Locale.ROOT, "    {\"axis\": \"%s\", \"line\": \"%s\", \"knee\": %s, \"throughputOrdersPerS\": %.3f}%s",
+                        k.axis, k.line, k.value < 0 ? "null" : Integer.toString(k.value), k.throughput,
+                        i + 1 < knees.size() ? "," : ""));
+            }
+            out.println("  ]");
+            out.println("}");
+        }
+    }
+
+    private static int[] ints(String values) {
+        String[] parts = values.split(",");
+        int[] ints = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            ints[i] = Integer.parseInt(parts[i].trim());
+        }
+        return ints;
+    }
+}
@@ -0,0 +1,34 @@
+package multiThreadRestaurant.benchmark;
+
+import multiThreadRestaurant.Simulation;
+import multiThreadRestaurant.SimulationOptions;
+
+/**
+ * Throughput with and without machine batching under high load: plenty of
+ * cooks and tables, so the machines are the bottleneck.
+ *
+ * Usage: MachineBatchingBenchmark [customers] [cooks] [tables] [capacity] [window ms] [batch sizes...]
+ */
+public class MachineBatchingBenchmark {
+    public static void main(String[] args) {
+        int numCustomers = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int numCooks = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int numTables = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int machineCapacity = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+        long windowMillis = args.length > 4 ? Long.parseLong(args[4]) : 20;
+        int[] batchSizes = args.length > 5 ? new int[args.length - 5] : new int[] { 1, 2, 4 };
+        for (int i = 5; i < args.length; i++) {
+            batchSizes[i - 5] = Integer.parseInt(args[i]);
+        }
+
+        System.out.println("customers=" + numCustomers + " cooks=" + numCooks + " tables=" + numTables
+                + " capacity=" + machineCapacity + " window=" + windowMillis + "ms");
+        for (int batchSize : batchSizes) {
+            RunStats stats = RunStats.measure(() -> Simulation.runSimulation(numCustomers, numCooks, numTables,
+                    machineCapacity, true, new SimulationOptions().machineBatching(batchSize, windowMillis)
+                            .printEvents(false).keepEvents(false).validateOnline(true)));
+            System.out.printf("batch=%d %s throughput=%.2f customers/s%n",
+                    batchSize, stats, numCustomers / stats.wallSeconds());
+        }
+    }
+}
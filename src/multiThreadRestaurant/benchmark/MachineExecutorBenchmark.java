@@ -0,0 +1,32 @@
+package multiThreadRestaurant.benchmark;
+
+import multiThreadRestaurant.Simulation;
+import multiThreadRestaurant.SimulationOptions;
+import multiThreadRestaurant.enumeration.MachineExecutorMode;
+import multiThreadRestaurant.service.Validate;
+
+/**
+ * Runs the same random-order workload once per machine executor mode and
+ * reports threads started and bytes allocated next to the timings.
+ * THREAD_PER_ITEM is the old one-thread-per-food-item behaviour.
+ *
+ * Usage: MachineExecutorBenchmark [customers] [cooks] [tables] [capacity]
+ */
+public class MachineExecutorBenchmark {
+    public static void main(String[] args) {
+        int numCustomers = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int numCooks = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int numTables = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        int machineCapacity = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+
+        System.out.println("customers=" + numCustomers + " cooks=" + numCooks + " tables=" + numTables
+                + " capacity=" + machineCapacity);
+        for (MachineExecutorMode mode : MachineExecutorMode.values()) {
+            SimulationOptions options = new SimulationOptions().machineExecutorMode(mode);
+            boolean[] valid = new boolean[1];
+            RunStats stats = RunStats.measure(() -> valid[0] = Validate.validateSimulation(
+                    Simulation.runSimulation(numCustomers, numCooks, numTables, machineCapacity, true, options)));
+            System.out.printf("%-15s %s valid=%b%n", mode, stats, valid[0]);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package multiThreadRestaurant.benchmark;
+
+import multiThreadRestaurant.Simulation;
+import multiThreadRestaurant.SimulationOptions;
+import multiThreadRestaurant.metrics.Jmx;
+import multiThreadRestaurant.service.PoissonArrivals;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+
+/**
+ * Watches a run over JMX the way JConsole would: polls every machine's
+ * MBean while customers arrive, and prints each machine's busy ratio,
+ * capacity rejections and queue, the busiest first, along with order and
+ * front door lock contention.
+ *
+ * Usage: MachineMonitorBenchmark [customers] [customers per second] [clock speed] [poll ms]
+ */
+public class MachineMonitorBenchmark {
+    public static void main(String[] args) throws Exception {
+        int numCustomers = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        double rate = args.length > 1 ? Double.parseDouble(args[1]) : 3;
+        double speed = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        long pollMillis = args.length > 3 ? Long.parseLong(args[3]) : 2000;
+
+        Thread run = new Thread(() -> Simulation.runSimulation(numCustomers, 3, 5, 2, true,
+                new SimulationOptions().jmx(true).clockSpeed(speed).arrivals(() -> new PoissonArrivals(rate, 42))
+                        .printEvents(false).keepEvents(false).validateOnline(true)));
+        run.start();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName machines = new ObjectName(Jmx.DOMAIN + ":type=Machine,*");
+        System.out.println("customers=" + numCustomers + " rate=" + rate + "/s speed=" + speed + "x");
+        while (run.isAlive()) {
+            run.join(pollMillis);
+            Set<ObjectName> names = server.queryNames(machines, null);
+            if (names.isEmpty()) {
+                continue;
+            }
+            System.out.println("--");
+            names.stream()
+                    .sorted((a, b) -> Double.compare(busy(server, b), busy(server, a)))
+                    .forEach(name -> {
+                        try {
+                            System.out.printf("  %-12s busy=%4.0f%% load=%.2f queued=%-3s rejections=%s%n",
+                                    name.getKeyProperty("name").replace("\"", ""), 100 * busy(server, name),
+                                    (Double) server.getAttribute(name, "Load"),
+                                    server.getAttribute(name, "ItemsQueued"),
+                                    server.getAttribute(name, "CapacityRejections"));
+                        } catch (Exception e) {
+                            // the run ended between the query and the read
+                        }
+                    });
+            for (ObjectName name : server.queryNames(new ObjectName(Jmx.DOMAIN + ":type=OrderQueue,*"), null)) {
+                System.out.printf("  orders waiting=%s, order lock contended %s of %s times (%.2fms waiting)%n",
+                        server.getAttribute(name, "OrdersWaiting"),
+                        server.getAttribute(name, "OrderLockContended"), server.getAttribute(name, "OrderLockAcquisitions"),
+                        (Double) server.getAttribute(name, "OrderLockWaitMillis"));
+            }
+            for (ObjectName name : server.queryNames(new ObjectName(Jmx.DOMAIN + ":type=Tables,*"), null)) {
+                System.out.printf("  tables seated=%s/%s, queue=%s, front door lock contended %s times%n",
+                        server.getAttribute(name, "SeatedCustomers"), server.getAttribute(name, "Tables"),
+                        server.getAttribute(name, "QueueLength"), server.getAttribute(name, "LockContended"));
+            }
+        }
+        System.out.println("monitors left after the run: " + server.queryNames(new ObjectName(Jmx.DOMAIN + ":*"), null).size());
+    }
+
+    private static double busy(MBeanServer server, ObjectName name) {
+        try {
+            return (Double) server.getAttribute(name, "BusyRatio");
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package multiThreadRestaurant.benchmark;
+
+import multiThreadRestaurant.Simulation;
+import multiThreadRestaurant.SimulationOptions;
+import multiThreadRestaurant.service.LeastLoadedRouter;
+import multiThreadRestaurant.service.MachineRouter;
+import multiThreadRestaurant.service.PowerOfTwoChoicesRouter;
+import multiThreadRestaurant.service.RoundRobinRouter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Throughput as every food type gets more machines, under each router.
+ * Plenty of cooks and tables, so the machines are the bottleneck.
+ *
+ * Usage: MachinePoolBenchmark [customers] [cooks] [tables] [capacity] [machine counts...]
+ */
+public class MachinePoolBenchmark {
+    public static void main(String[] args) {
+        int numCustomers = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int numCooks = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int numTables = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int machineCapacity = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        int[] machineCounts = args.length > 4 ? new int[args.length - 4] : new int[] { 1, 2, 4 };
+        for (int i = 4; i < args.length; i++) {
+            machineCounts[i - 4] = Integer.parseInt(args[i]);
+        }
+
+        Map<String, Supplier<MachineRouter>> routers = new LinkedHashMap<>();
+        routers.put("round-robin", RoundRobinRouter::new);
+        routers.put("least-loaded", LeastLoadedRouter::new);
+        routers.put("power-of-two", PowerOfTwoChoicesRouter::new);
+
+        System.out.println("customers=" + numCustomers + " cooks=" + numCooks + " tables=" + numTables
+                + " capacity=" + machineCapacity);
+        for (int machineCount : machineCounts) {
+            for (Map.Entry<String, Supplier<MachineRouter>> router : routers.entrySet()) {
+                RunStats stats = RunStats.measure(() -> Simulation.runSimulation(numCustomers, numCooks, numTables,
+                        machineCapacity, true, new SimulationOptions().machinesPerFood(machineCount)
+                                .machineRouting(router.getValue())
+                                .printEvents(false).keepEvents(false).validateOnline(true)));
+                System.out.printf("machines=%d %-12s %s throughput=%.2f customers/s%n",
+                        machineCount, router.getKey(), stats, numCustomers / stats.wallSeconds());
+            }
+        }
+    }
+}
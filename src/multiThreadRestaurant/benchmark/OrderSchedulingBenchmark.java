@@ -0,0 +1,78 @@
+package multiThreadRestaurant.benchmark;
+
+import multiThreadRestaurant.Simulation;
+import multiThreadRestaurant.SimulationOptions;
+import multiThreadRestaurant.metrics.Histogram;
+import multiThreadRestaurant.service.EarliestDeadlineFirst;
+import multiThreadRestaurant.service.EventSink;
+import multiThreadRestaurant.service.FifoScheduling;
+import multiThreadRestaurant.service.OrderSchedulingPolicy;
+import multiThreadRestaurant.service.ShortestCookTimeFirst;
+import multiThreadRestaurant.service.SimulationEvent;
+import multiThreadRestaurant.service.WeightedFairScheduling;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Customer sojourn time (going to the restaurant until leaving) and order
+ * sojourn time (placing the order until receiving it) under each order
+ * scheduling policy, on the random-order workload of runSimulation.
+ *
+ * Usage: OrderSchedulingBenchmark [customers] [cooks] [tables] [capacity]
+ */
+public class OrderSchedulingBenchmark {
+    public static void main(String[] args) {
+        int numCustomers = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int numCooks = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int numTables = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int machineCapacity = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+
+        Map<String, Supplier<OrderSchedulingPolicy>> policies = new LinkedHashMap<>();
+        policies.put("FIFO", FifoScheduling::new);
+        policies.put("SPT", ShortestCookTimeFirst::new);
+        policies.put("EDF", EarliestDeadlineFirst::new);
+        policies.put("WFQ", WeightedFairScheduling::new);
+
+        System.out.println("customers=" + numCustomers + " cooks=" + numCooks + " tables=" + numTables
+                + " capacity=" + machineCapacity);
+        for (Map.Entry<String, Supplier<OrderSchedulingPolicy>> policy : policies.entrySet()) {
+            SojournSink sojourn = new SojournSink();
+            RunStats stats = RunStats.measure(() -> Simulation.runSimulation(numCustomers, numCooks, numTables,
+                    machineCapacity, true, new SimulationOptions().orderScheduling(policy.getValue())
+                            .printEvents(false).keepEvents(false).validateOnline(true).addEventSink(sojourn)));
+            System.out.printf("%-4s throughput=%.2f customers/s customer sojourn mean=%.0fms p99=%dms | order sojourn mean=%.0fms p99=%dms%n",
+                    policy.getKey(), numCustomers / stats.wallSeconds(),
+                    sojourn.customers.mean(), sojourn.customers.percentile(99),
+                    sojourn.orders.mean(), sojourn.orders.percentile(99));
+        }
+    }
+
+    /**
+     * Turns event timestamps into per-customer and per-order sojourn times.
+     */
+    static class SojournSink implements EventSink {
+        final Histogram customers = new Histogram("customer sojourn", "ms");
+        final Histogram orders = new Histogram("order sojourn", "ms");
+        private final HashMap<Integer, Long> arrived = new HashMap<>();
+        private final HashMap<Integer, Long> placed = new HashMap<>();
+
+        @Override
+        public void write(List<SimulationEvent> batch) {
+            for (SimulationEvent e : batch) {
+                switch (e.event) {
+                    case CustomerStarting -> arrived.put(e.customer.getOrderNum(), e.getTimestamp());
+                    case CustomerPlacedOrder -> placed.put(e.customer.getOrderNum(), e.getTimestamp());
+                    case CustomerReceivedOrder ->
+                            orders.record((e.getTimestamp() - placed.remove(e.customer.getOrderNum())) / 1_000_000);
+                    case CustomerLeavingRestaurant ->
+                            customers.record((e.getTimestamp() - arrived.remove(e.customer.getOrderNum())) / 1_000_000);
+                    default -> { }
+                }
+            }
+        }
+    }
+}
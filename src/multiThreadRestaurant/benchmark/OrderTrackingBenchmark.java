@@ -0,0 +1,114 @@
+package multiThreadRestaurant.benchmark;
+
+import multiThreadRestaurant.enumeration.FoodType;
+import multiThreadRestaurant.models.Food;
+import multiThreadRestaurant.service.OrderTable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Single-threaded cost of tracking an order through its life (place, cook
+ * and collect every item, complete, hand over) with the boxed collections
+ * Simulation used before and with OrderTable. Reports ns and bytes
+ * allocated per order.
+ *
+ * Usage: OrderTrackingBenchmark [orders per round] [live orders]
+ */
+public class OrderTrackingBenchmark {
+    public static void main(String[] args) {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int live = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        Random rnd = new Random(42);
+        List<List<Food>> menu = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            List<Food> order = new ArrayList<>();
+            for (Food food : FoodType.all) {
+                for (int n = rnd.nextInt(4); n > 0; n--) {
+                    order.add(food);
+                }
+            }
+            menu.add(order);
+        }
+
+        for (int round = 0; round < 5; round++) {
+            long[] sink = new long[1];
+            RunStats boxed = RunStats.measure(() -> sink[0] += boxedCollections(menu, orders, live));
+            RunStats table = RunStats.measure(() -> sink[0] += orderTable(menu, orders, live));
+            System.out.printf("round=%d boxed: %.1fns/order %.0fB/order | OrderTable: %.1fns/order %.0fB/order (%d)%n", round,
+                    (double) boxed.wallNanos / orders, (double) boxed.allocatedBytes / orders,
+                    (double) table.wallNanos / orders, (double) table.allocatedBytes / orders, sink[0]);
+        }
+    }
+
+    /**
+     * The old bookkeeping: cooked and collected food in HashMap<Integer, List<Food>>,
+     * completion in an ArrayList<Integer> and the queue in a LinkedList<Integer>.
+     */
+    static long boxedCollections(List<List<Food>> menu, int orders, int live) {
+        HashMap<Integer, List<Food>> ordersPlaced = new HashMap<>();
+        HashMap<Integer, List<Food>> ordersCooked = new HashMap<>();
+        HashMap<Integer, List<Food>> checkedOrdersCooked = new HashMap<>();
+        ArrayList<Integer> completedOrders = new ArrayList<>();
+        LinkedList<Integer> orderList = new LinkedList<>();
+        long handed = 0;
+        for (int orderNum = 1; orderNum <= orders; orderNum++) {
+            List<Food> order = menu.get(orderNum & 63);
+            ordersPlaced.put(orderNum, order);
+            orderList.add(orderNum);
+            if (orderList.size() < live) {
+                continue;
+            }
+            int next = orderList.removeFirst();
+            for (Food food : ordersPlaced.get(next)) {
+                ordersCooked.computeIfAbsent(next, n -> new ArrayList<>()).add(food);
+            }
+            for (Food food : ordersPlaced.get(next)) {
+                if (ordersCooked.get(next).remove(food)) {
+                    checkedOrdersCooked.computeIfAbsent(next, n -> new ArrayList<>()).add(food);
+                }
+            }
+            completedOrders.add(next);
+            if (completedOrders.contains(next)) {
+                List<Food> done = checkedOrdersCooked.remove(next);
+                handed += done == null ? 0 : done.size();
+                ordersCooked.remove(next);
+                ordersPlaced.remove(next);
+                completedOrders.remove((Integer) next);
+            }
+        }
+        return handed;
+    }
+
+    static long orderTable(List<List<Food>> menu, int orders, int live) {
+        OrderTable table = new OrderTable(live);
+        int[] queue = new int[Integer.highestOneBit(live) << 1];
+        int mask = queue.length - 1;
+        int head = 0;
+        int tail = 0;
+        long handed = 0;
+        for (int orderNum = 1; orderNum <= orders; orderNum++) {
+            table.place(orderNum, menu.get(orderNum & 63));
+            queue[tail++ & mask] = orderNum;
+            if (tail - head < live) {
+                continue;
+            }
+            int next = queue[head++ & mask];
+            List<Food> items = table.items(next);
+            for (Food food : items) {
+                table.cooked(next, food);
+            }
+            for (Food food : items) {
+                table.collect(next, food);
+            }
+            table.complete(next);
+            if (table.isComplete(next)) {
+                handed += table.takeCompleted(next).size();
+            }
+        }
+        return handed;
+    }
+}
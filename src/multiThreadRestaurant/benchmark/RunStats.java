@@ -0,0 +1,87 @@
+package multiThreadRestaurant.benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Wall-clock time, process CPU time, threads started, peak live threads and
+ * bytes allocated by one measured block, with the console muted so event printing doesn't skew
+ * the numbers.
+ */
+public class RunStats {
+    public final long wallNanos;
+    public final long cpuNanos;
+    public final long threadsStarted;
+    public final int peakThreads;
+    public final long allocatedBytes;
+
+    private RunStats(long wallNanos, long cpuNanos, long threadsStarted, int peakThreads, long allocatedBytes) {
+        this.wallNanos = wallNanos;
+        this.cpuNanos = cpuNanos;
+        this.threadsStarted = threadsStarted;
+        this.peakThreads = peakThreads;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public static RunStats measure(Runnable run) {
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            threads.resetPeakThreadCount();
+            long threadsStart = threads.getTotalStartedThreadCount();
+            long allocatedStart = threads.getTotalThreadAllocatedBytes();
+            long cpuStart = os.getProcessCpuTime();
+            long wallStart = System.nanoTime();
+            run.run();
+            long wall = System.nanoTime() - wallStart;
+            return new RunStats(wall, os.getProcessCpuTime() - cpuStart,
+                    threads.getTotalStartedThreadCount() - threadsStart, threads.getPeakThreadCount(),
+                    threads.getTotalThreadAllocatedBytes() - allocatedStart);
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    /**
+     * Peak resident set size of this JVM so far, or -1 where /proc is not
+     * available.
+     */
+    public static long peakRssBytes() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                }
+            }
+        } catch (Exception e) {
+            return -1;
+        }
+        return -1;
+    }
+
+    public double wallSeconds() {
+        return wallNanos / 1e9;
+    }
+
+    public double cpuSeconds() {
+        return cpuNanos / 1e9;
+    }
+
+    /** How many cores were kept busy on average while the block ran. */
+    public double cpuPerWall() {
+        return (double) cpuNanos / wallNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("wall=%.3fs cpu=%.3fs cores=%.2f threads=%d peak=%d alloc=%.1fMB",
+                wallSeconds(), cpuSeconds(), cpuPerWall(), threadsStarted, peakThreads, allocatedBytes / 1048576.0);
+    }
+}
@@ -0,0 +1,69 @@
+package multiThreadRestaurant.benchmark;
+
+import multiThreadRestaurant.Simulation;
+import multiThreadRestaurant.SimulationOptions;
+import multiThreadRestaurant.enumeration.ExecutionMode;
+import multiThreadRestaurant.metrics.StageTimings;
+import multiThreadRestaurant.service.SimulationEvent;
+
+import java.util.List;
+
+/**
+ * What per-stage order timing costs. Stage timings only ever run on the
+ * event log's consumer thread, so the comparison is their cost per event
+ * against what a whole run spends per event: a threaded run, and a
+ * discrete-event run, which is pure bookkeeping with no sleeping to hide
+ * behind. The stage timings are fed the stamped events of a discrete-event
+ * run, so every stage is timed. Then prints the timings of a run.
+ *
+ * Usage: StageTimingsBenchmark [customers] [rounds]
+ */
+public class StageTimingsBenchmark {
+    public static void main(String[] args) {
+        int numCustomers = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        // a real run's events, stamped by the event log, so every stage is timed
+        List<SimulationEvent> events = Simulation.runSimulation(numCustomers, 3, 5, 4, true,
+                new SimulationOptions().executionMode(ExecutionMode.DISCRETE_EVENT).printEvents(false));
+        long sinkNanos = Long.MAX_VALUE;
+        for (int round = 0; round <= rounds; round++) {
+            StageTimings timings = new StageTimings(false);
+            long start = System.nanoTime();
+            for (int i = 0; i < events.size(); i += 1024) {
+                timings.write(events.subList(i, Math.min(events.size(), i + 1024)));
+            }
+            sinkNanos = Math.min(sinkNanos, System.nanoTime() - start);
+        }
+
+        long runNanos = Long.MAX_VALUE;
+        long[] runEvents = new long[1];
+        for (int round = 0; round <= rounds; round++) {
+            runEvents[0] = 0;
+            RunStats stats = RunStats.measure(() -> Simulation.runSimulation(numCustomers, 3, 5, 4, true,
+                    new SimulationOptions().executionMode(ExecutionMode.DISCRETE_EVENT)
+                            .printEvents(false).keepEvents(false).addEventSink(batch -> runEvents[0] += batch.size())));
+            runNanos = Math.min(runNanos, stats.cpuNanos);
+        }
+
+        long[] threadedEvents = new long[1];
+        RunStats threaded = RunStats.measure(() -> Simulation.runSimulation(200, 3, 5, 4, true,
+                new SimulationOptions().clockSpeed(10)
+                        .printEvents(false).keepEvents(false).addEventSink(batch -> threadedEvents[0] += batch.size())));
+
+        double sinkPerEvent = (double) sinkNanos / events.size();
+        double runPerEvent = (double) runNanos / runEvents[0];
+        double threadedPerEvent = (double) threaded.cpuNanos / threadedEvents[0];
+        System.out.printf("customers=%d rounds=%d (best of each)%n", numCustomers, rounds);
+        System.out.printf("stage timings:      %.1fns per event on the consumer thread%n", sinkPerEvent);
+        System.out.printf("discrete-event run: %.1fns CPU per event -> stage timings add %.1f%%%n",
+                runPerEvent, 100 * sinkPerEvent / runPerEvent);
+        System.out.printf("threaded run (10x): %.1fns CPU per event -> stage timings add %.2f%%%n",
+                threadedPerEvent, 100 * sinkPerEvent / threadedPerEvent);
+
+        RunStats.measure(() -> Simulation.runSimulation(numCustomers, 3, 5, 4, true,
+                new SimulationOptions().executionMode(ExecutionMode.DISCRETE_EVENT)
+                        .printEvents(false).keepEvents(false).stageTimings(true)));
+        System.out.println(Simulation.getStageTimings().report());
+    }
+}
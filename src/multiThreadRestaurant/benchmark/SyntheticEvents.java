@@ -0,0 +1,85 @@
+package multiThreadRestaurant.benchmark;
+
+import multiThreadRestaurant.enumeration.FoodType;
+import multiThreadRestaurant.enumeration.MachineExecutorMode;
+import multiThreadRestaurant.enumeration.MachineType;
+import multiThreadRestaurant.models.Cook;
+import multiThreadRestaurant.models.Customer;
+import multiThreadRestaurant.models.Food;
+import multiThreadRestaurant.models.Machine;
+import multiThreadRestaurant.service.SimulationEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Builds valid event logs of any size without running the simulation, by
+ * serving customers one after another with random orders.
+ */
+public class SyntheticEvents {
+    private static final int MACHINE_CAPACITY = 4;
+
+    /**
+     * A valid log of at least {@code minEvents} events.
+     */
+    public static List<SimulationEvent> validRun(int minEvents, long seed) {
+        // an average customer with 6 items logs 7 + 4 * 6 events
+        int numCustomers = Math.max(1, minEvents / 31 + 1);
+        Random rnd = new Random(seed);
+        int numCooks = 3;
+        Cook[] cooks = new Cook[numCooks];
+        for (int i = 0; i < numCooks; i++) {
+            cooks[i] = new Cook(i + 1, "Cook " + (i + 1));
+        }
+        Map<Food, Machine> machines = new HashMap<>();
+        machines.put(FoodType.burger, new Machine(MachineType.GRILL_PRESS, FoodType.burger, MACHINE_CAPACITY, MachineExecutorMode.TIMER));
+        machines.put(FoodType.fries, new Machine(MachineType.FRYER, FoodType.fries, MACHINE_CAPACITY, MachineExecutorMode.TIMER));
+        machines.put(FoodType.coffee, new Machine(MachineType.FOUNTAIN, FoodType.coffee, MACHINE_CAPACITY, MachineExecutorMode.TIMER));
+        machines.put(FoodType.chicken, new Machine(MachineType.OVEN, FoodType.chicken, MACHINE_CAPACITY, MachineExecutorMode.TIMER));
+
+        List<SimulationEvent> events = new ArrayList<>(numCustomers * 32);
+        events.add(SimulationEvent.startSimulation(numCustomers, numCooks, 1, MACHINE_CAPACITY));
+        for (Machine machine : machines.values()) {
+            events.add(SimulationEvent.machineStarting(machine, machine.machineFoodType, MACHINE_CAPACITY));
+        }
+        for (Cook cook : cooks) {
+            events.add(SimulationEvent.cookStarting(cook));
+        }
+        for (int c = 0; c < numCustomers; c++) {
+            List<Food> order = new ArrayList<>();
+            for (Food food : FoodType.all) {
+                for (int n = rnd.nextInt(4); n > 0; n--) {
+                    order.add(food);
+                }
+            }
+            Customer customer = new Customer("Customer " + c, order);
+            int orderNum = customer.getOrderNum();
+            Cook cook = cooks[c % numCooks];
+            events.add(SimulationEvent.customerStarting(customer));
+            events.add(SimulationEvent.customerEnteredRestaurant(customer));
+            events.add(SimulationEvent.customerPlacedOrder(customer, order, orderNum));
+            events.add(SimulationEvent.cookReceivedOrder(cook, order, orderNum));
+            for (Food food : order) {
+                Machine machine = machines.get(food);
+                events.add(SimulationEvent.cookStartedFood(cook, food, orderNum));
+                events.add(SimulationEvent.machineCookingFood(machine, food));
+                events.add(SimulationEvent.machineDoneFood(machine, food));
+                events.add(SimulationEvent.cookFinishedFood(cook, food, orderNum));
+            }
+            events.add(SimulationEvent.cookCompletedOrder(cook, orderNum));
+            events.add(SimulationEvent.customerReceivedOrder(customer, order, orderNum));
+            events.add(SimulationEvent.customerLeavingRestaurant(customer));
+        }
+        for (Cook cook : cooks) {
+            events.add(SimulationEvent.cookEnding(cook));
+        }
+        for (Machine machine : machines.values()) {
+            events.add(SimulationEvent.machineEnding(machine));
+        }
+        events.add(SimulationEvent.endSimulation());
+        return events;
+    }
+}
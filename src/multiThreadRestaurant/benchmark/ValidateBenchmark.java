@@ -0,0 +1,29 @@
+package multiThreadRestaurant.benchmark;
+
+import multiThreadRestaurant.service.SimulationEvent;
+import multiThreadRestaurant.service.Validate;
+
+import java.util.List;
+
+/**
+ * Times Validate.validateSimulation on synthetic logs of growing size.
+ *
+ * Usage: ValidateBenchmark [events...]
+ */
+public class ValidateBenchmark {
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ? new int[args.length] : new int[] { 10_000, 100_000, 1_000_000 };
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        for (int size : sizes) {
+            List<SimulationEvent> events = SyntheticEvents.validRun(size, 42);
+            for (int round = 0; round < 3; round++) {
+                boolean[] valid = new boolean[1];
+                RunStats stats = RunStats.measure(() -> valid[0] = Validate.validateSimulation(events));
+                System.out.printf("events=%d round=%d %s events/s=%.0f valid=%b%n", events.size(), round, stats,
+                        events.size() / stats.wallSeconds(), valid[0]);
+            }
+        }
+    }
+}
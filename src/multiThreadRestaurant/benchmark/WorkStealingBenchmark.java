@@ -0,0 +1,34 @@
+package multiThreadRestaurant.benchmark;
+
+import multiThreadRestaurant.Simulation;
+import multiThreadRestaurant.SimulationOptions;
+
+/**
+ * Order and customer sojourn with cooks that each see their own orders
+ * through against a work-stealing kitchen, where idle cooks take finished
+ * items off the machines for busy ones.
+ *
+ * Usage: WorkStealingBenchmark [customers] [cooks] [tables] [capacity]
+ */
+public class WorkStealingBenchmark {
+    public static void main(String[] args) {
+        int numCustomers = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int numCooks = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int numTables = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int machineCapacity = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+
+        System.out.println("customers=" + numCustomers + " cooks=" + numCooks + " tables=" + numTables
+                + " capacity=" + machineCapacity);
+        for (boolean stealing : new boolean[] { false, true }) {
+            OrderSchedulingBenchmark.SojournSink sojourn = new OrderSchedulingBenchmark.SojournSink();
+            RunStats stats = RunStats.measure(() -> Simulation.runSimulation(numCustomers, numCooks, numTables,
+                    machineCapacity, true, new SimulationOptions().workStealing(stealing)
+                            .printEvents(false).keepEvents(false).validateOnline(true).addEventSink(sojourn)));
+            long steals = stealing ? Simulation.getKitchen().steals() : 0;
+            System.out.printf("%-13s throughput=%.2f customers/s order sojourn p50=%dms p99=%dms | customer sojourn p50=%dms p99=%dms | steals=%d%n",
+                    stealing ? "work-stealing" : "own-orders", numCustomers / stats.wallSeconds(),
+                    sojourn.orders.percentile(50), sojourn.orders.percentile(99),
+                    sojourn.customers.percentile(50), sojourn.customers.percentile(99), steals);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package multiThreadRestaurant.enumeration;
+
+/**
+ * How waiting customers are picked when a table frees up.
+ */
+public enum AdmissionPolicy {
+    /* First come, first seated */
+    FIFO,
+    /* VIPs first, then larger parties, then arrival order */
+    PRIORITY,
+    /* No queue discipline: whoever grabs the free table first gets it */
+    UNFAIR
+}
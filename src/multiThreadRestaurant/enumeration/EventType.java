@@ -24,5 +24,6 @@ public enum EventType {
     MachineStarting,
     MachineStartingFood,
     MachineDoneFood,
-    MachineEnding
+    MachineEnding,
+    MachineConfigured
 };
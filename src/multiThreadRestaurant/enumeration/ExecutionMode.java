@@ -0,0 +1,11 @@
+package multiThreadRestaurant.enumeration;
+
+/**
+ * The kind of thread every customer and cook runs on.
+ */
+public enum ExecutionMode {
+    PLATFORM,
+    VIRTUAL,
+    /* No actor threads: one thread steps customers, cooks and machines through a virtual clock */
+    DISCRETE_EVENT
+}
@@ -2,9 +2,27 @@ package multiThreadRestaurant.enumeration;
 
 import multiThreadRestaurant.models.Food;
 
+import java.util.List;
+
 public class FoodType {
-	public static final Food burger = new Food("burger", 500);
-	public static final Food fries = new Food("fries", 350);
-	public static final Food coffee = new Food("coffee", 100);
-	public static final Food chicken = new Food("chicken", 550);
+	public static final Food burger = new Food(0, "burger", 500);
+	public static final Food fries = new Food(1, "fries", 350);
+	public static final Food coffee = new Food(2, "coffee", 100);
+	public static final Food chicken = new Food(3, "chicken", 550);
+
+	/* Every food, indexed by Food.id */
+	public static final Food[] all = { burger, fries, coffee, chicken };
+
+	/**
+	 * Per-food-type item counts of an order, indexed by Food.id.
+	 */
+	public static int[] countItems(List<Food> order) {
+		int[] counts = new int[all.length];
+		if (order != null) {
+			for (Food food : order) {
+				counts[food.id]++;
+			}
+		}
+		return counts;
+	}
 }
@@ -0,0 +1,17 @@
+package multiThreadRestaurant.enumeration;
+
+/**
+ * What runs a machine's cooking jobs.
+ */
+public enum MachineExecutorMode {
+    /* A brand-new platform thread per item, as machines originally worked */
+    THREAD_PER_ITEM,
+    /* A fixed pool of platform threads per machine, one per capacity slot */
+    PLATFORM_POOL,
+    /* One virtual thread per item */
+    VIRTUAL,
+    /* No cooking threads at all: a shared scheduler fires the "done" step when the cook time is up */
+    TIMER,
+    /* No waiting at all: the done step is scheduled on the run's virtual clock; discrete-event runs only */
+    SIMULATED
+}
@@ -0,0 +1,130 @@
+package multiThreadRestaurant.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear histogram of non-negative long values, in the spirit of
+ * HdrHistogram: every power of two is split into 64 linear buckets, so a
+ * recorded value is reported to within about 1.5%. Recording is lock free
+ * and allocation free, and may be done from any number of threads.
+ */
+public class Histogram {
+    private static final int SUB_BITS = 7;
+    private static final int HALF = 1 << (SUB_BITS - 1);
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * HALF + HALF;
+
+    private final String name;
+    private final String unit;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public Histogram(String name, String unit) {
+        this.name = name;
+        this.unit = unit;
+    }
+
+    static int bucketOf(long value) {
+        if (value < 2 * HALF) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS + 1;
+        return shift * HALF + (int) (value >>> shift);
+    }
+
+    static long highestValueIn(int bucket) {
+        if (bucket < 2 * HALF) {
+            return bucket;
+        }
+        int shift = bucket / HALF - 1;
+        long mantissa = bucket - (long) shift * HALF;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * {@link #record} for a histogram only one thread ever records into:
+     * plain increments published with ordered stores instead of atomic
+     * read-modify-writes, while readers on other threads still see
+     * consistent counts.
+     */
+    void recordSingleWriter(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        int bucket = bucketOf(value);
+        counts.lazySet(bucket, counts.get(bucket) + 1);
+        count.lazySet(count.get() + 1);
+        sum.lazySet(sum.get() + value);
+        if (value > max.get()) {
+            max.lazySet(value);
+        }
+    }
+
+    public long count() {
+        return count.get();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    public double mean() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * Smallest recorded value that at least {@code percentile}% of the
+     * recordings are less than or equal to, rounded up to its bucket.
+     */
+    public long percentile(double percentile) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long wanted = Math.max(1, (long) Math.ceil(n * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= wanted) {
+                return Math.min(highestValueIn(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": count=" + count() +
+                " mean=" + String.format("%.1f", mean()) + unit +
+                " p50=" + percentile(50) + unit +
+                " p90=" + percentile(90) + unit +
+                " p99=" + percentile(99) + unit +
+                " max=" + max() + unit;
+    }
+}
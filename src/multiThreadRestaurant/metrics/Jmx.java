@@ -0,0 +1,44 @@
+package multiThreadRestaurant.metrics;
+
+import multiThreadRestaurant.exceptions.IllegalRestaurantStateException;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Publishes monitors on the platform MBean server under
+ * {@code multiThreadRestaurant:restaurant=<shard>,type=<type>,name=<name>}.
+ * A newer run's monitor replaces an older one of the same name, so a
+ * console always shows the latest run.
+ */
+public class Jmx {
+    public static final String DOMAIN = "multiThreadRestaurant";
+
+    public static ObjectName register(Object monitor, int shard, String type, String name) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName objectName = new ObjectName(DOMAIN + ":restaurant=" + shard + ",type=" + type
+                    + ",name=" + ObjectName.quote(name));
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(monitor, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalRestaurantStateException("Unable to publish " + type + " " + name + " over JMX: " + e.getMessage(), 500);
+        }
+    }
+
+    public static void unregister(ObjectName objectName) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            throw new IllegalRestaurantStateException("Unable to withdraw " + objectName + " from JMX: " + e.getMessage(), 500);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package multiThreadRestaurant.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counts how often a lock is taken, how often the taker found it held, and
+ * how long such takers waited. An uncontended acquisition costs one
+ * tryLock and one counter increment; only a taker that has to wait reads
+ * the clock.
+ */
+public class LockStats {
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    public void lock(ReentrantLock lock) {
+        if (!lock.tryLock()) {
+            long start = System.nanoTime();
+            lock.lock();
+            waited(start);
+        }
+        acquisitions.increment();
+    }
+
+    public void lockInterruptibly(ReentrantLock lock) throws InterruptedException {
+        if (!lock.tryLock()) {
+            long start = System.nanoTime();
+            lock.lockInterruptibly();
+            waited(start);
+        }
+        acquisitions.increment();
+    }
+
+    private void waited(long start) {
+        contended.increment();
+        waitNanos.add(System.nanoTime() - start);
+    }
+
+    public long acquisitions() {
+        return acquisitions.sum();
+    }
+
+    /**
+     * Acquisitions that found the lock held and had to wait.
+     */
+    public long contended() {
+        return contended.sum();
+    }
+
+    /**
+     * Real time, not simulated, spent waiting for the lock.
+     */
+    public long waitNanos() {
+        return waitNanos.sum();
+    }
+
+    public void reset() {
+        acquisitions.reset();
+        contended.reset();
+        waitNanos.reset();
+    }
+}
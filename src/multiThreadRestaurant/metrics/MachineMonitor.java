@@ -0,0 +1,51 @@
+package multiThreadRestaurant.metrics;
+
+import multiThreadRestaurant.models.Machine;
+
+public class MachineMonitor implements MachineMonitorMBean {
+    private final Machine machine;
+
+    public MachineMonitor(Machine machine) {
+        this.machine = machine;
+    }
+
+    @Override
+    public String getFood() {
+        return machine.machineFoodType.name;
+    }
+
+    @Override
+    public int getCapacity() {
+        return machine.getCapacity();
+    }
+
+    @Override
+    public int getBatchSize() {
+        return machine.getBatchSize();
+    }
+
+    @Override
+    public int getItemsCooking() {
+        return machine.itemsCooking();
+    }
+
+    @Override
+    public int getItemsQueued() {
+        return machine.itemsQueued();
+    }
+
+    @Override
+    public double getLoad() {
+        return machine.load();
+    }
+
+    @Override
+    public long getCapacityRejections() {
+        return machine.capacityRejections();
+    }
+
+    @Override
+    public double getBusyRatio() {
+        return machine.busyRatio();
+    }
+}
@@ -0,0 +1,36 @@
+package multiThreadRestaurant.metrics;
+
+/**
+ * Live view of one machine, for JConsole or VisualVM. A machine has no lock
+ * of its own: it is driven under the restaurant's order lock, whose
+ * contention the OrderQueue bean reports for all machines together.
+ */
+public interface MachineMonitorMBean {
+    String getFood();
+
+    int getCapacity();
+
+    /**
+     * Most items cooked in one cycle; 1 when the machine doesn't batch.
+     */
+    int getBatchSize();
+
+    int getItemsCooking();
+
+    int getItemsQueued();
+
+    /**
+     * Busy slots plus the slots the queued items need, per slot.
+     */
+    double getLoad();
+
+    /**
+     * Items that arrived to find every slot taken.
+     */
+    long getCapacityRejections();
+
+    /**
+     * Share of slot time spent busy since the machine was set up.
+     */
+    double getBusyRatio();
+}
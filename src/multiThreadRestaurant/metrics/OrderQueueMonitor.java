@@ -0,0 +1,48 @@
+package multiThreadRestaurant.metrics;
+
+import multiThreadRestaurant.service.OrderDispatchQueue;
+
+public class OrderQueueMonitor implements OrderQueueMonitorMBean {
+    private final OrderDispatchQueue queue;
+    private final LockStats orderLock;
+
+    public OrderQueueMonitor(OrderDispatchQueue queue, LockStats orderLock) {
+        this.queue = queue;
+        this.orderLock = orderLock;
+    }
+
+    @Override
+    public int getOrdersWaiting() {
+        return queue.pending();
+    }
+
+    @Override
+    public long getQueueLockAcquisitions() {
+        return queue.lockStats().acquisitions();
+    }
+
+    @Override
+    public long getQueueLockContended() {
+        return queue.lockStats().contended();
+    }
+
+    @Override
+    public double getQueueLockWaitMillis() {
+        return queue.lockStats().waitNanos() / 1e6;
+    }
+
+    @Override
+    public long getOrderLockAcquisitions() {
+        return orderLock.acquisitions();
+    }
+
+    @Override
+    public long getOrderLockContended() {
+        return orderLock.contended();
+    }
+
+    @Override
+    public double getOrderLockWaitMillis() {
+        return orderLock.waitNanos() / 1e6;
+    }
+}
@@ -0,0 +1,25 @@
+package multiThreadRestaurant.metrics;
+
+/**
+ * Live view of the orders waiting for a cook and of the locks orders pass
+ * through. The dispatch queue's lock is only taken by non-FIFO scheduling
+ * policies, so its counters stay at zero under FIFO, whose orders sit on a
+ * lock-free ring. The restaurant's order lock also guards every machine,
+ * so its counters include the contention of queueing items on machines and
+ * collecting them. Lock wait times are real, not simulated.
+ */
+public interface OrderQueueMonitorMBean {
+    int getOrdersWaiting();
+
+    long getQueueLockAcquisitions();
+
+    long getQueueLockContended();
+
+    double getQueueLockWaitMillis();
+
+    long getOrderLockAcquisitions();
+
+    long getOrderLockContended();
+
+    double getOrderLockWaitMillis();
+}
@@ -0,0 +1,229 @@
+package multiThreadRestaurant.metrics;
+
+import multiThreadRestaurant.enumeration.FoodType;
+import multiThreadRestaurant.service.EventSink;
+import multiThreadRestaurant.service.SimulationEvent;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Times every order through its stages from the event timestamps, on the
+ * event log's consumer thread, so the actors pay nothing beyond logging
+ * the events they log anyway:
+ *
+ * <ul>
+ * <li>queue wait: order placed until a cook receives it</li>
+ * <li>machine wait: order received until each item goes on a machine</li>
+ * <li>cook time: item on the machine until a cook takes it off</li>
+ * <li>sojourn: customer seated until they leave</li>
+ * </ul>
+ *
+ * An order's items of one food are matched first on, first off. Orders in
+ * flight, from the customer being seated until they leave, are kept in flat
+ * primitive arrays indexed by {@code orderNum & mask}, the way
+ * {@link multiThreadRestaurant.service.OrderTable} keeps them, and the
+ * start times of an order's items of one food in a small ring per slot;
+ * the table doubles when two orders in flight share a slot or a ring fills
+ * up. All times are in simulated microseconds; the report is printed when
+ * the simulation ends, if asked for.
+ */
+public class StageTimings implements EventSink {
+    private static final int FOODS = FoodType.all.length;
+    private static final int EMPTY = Integer.MIN_VALUE;
+    private static final long NONE = -1;
+
+    private final Histogram queueWait = new Histogram("queue wait", "us");
+    private final Histogram machineWait = new Histogram("machine wait", "us");
+    private final Histogram cookTime = new Histogram("cook time", "us");
+    private final Histogram sojourn = new Histogram("sojourn", "us");
+    private final boolean printAtEnd;
+    private int mask;
+    private int depth; // items of one food an order can have on the machines before its ring grows
+    private int[] owner; // order number in each slot, or EMPTY
+    private long[] seated; // by slot
+    private long[] placed; // by slot
+    private long[] received; // by slot
+    private int[] started; // items gone on a machine, by slot * FOODS + Food.id
+    private int[] finished; // items come off, likewise
+    private long[] onMachine; // start times, a ring of depth per slot and food
+
+    public StageTimings(boolean printAtEnd) {
+        this.printAtEnd = printAtEnd;
+        allocate(64, 4);
+    }
+
+    @Override
+    public void write(List<SimulationEvent> batch) {
+        for (SimulationEvent e : batch) {
+            long now = e.getTimestamp();
+            switch (e.event) {
+                case CustomerEnteredRestaurant -> {
+                    int slot = open(e.customer.getOrderNum());
+                    seated[slot] = now;
+                }
+                case CustomerPlacedOrder -> {
+                    int slot = slotOf(e.orderNumber);
+                    if (slot >= 0) {
+                        placed[slot] = now;
+                    }
+                }
+                case CookReceivedOrder -> {
+                    int slot = slotOf(e.orderNumber);
+                    if (slot >= 0) {
+                        record(queueWait, placed[slot], now);
+                        received[slot] = now;
+                    }
+                }
+                case CookStartedFood -> {
+                    int slot = slotOf(e.orderNumber);
+                    if (slot >= 0) {
+                        record(machineWait, received[slot], now);
+                        int item = slot * FOODS + e.food.id;
+                        if (started[item] - finished[item] == depth) {
+                            resize(owner.length, depth * 2);
+                            item = slotOf(e.orderNumber) * FOODS + e.food.id;
+                        }
+                        onMachine[item * depth + started[item] % depth] = now;
+                        started[item]++;
+                    }
+                }
+                case CookFinishedFood -> {
+                    int slot = slotOf(e.orderNumber);
+                    if (slot >= 0) {
+                        int item = slot * FOODS + e.food.id;
+                        if (finished[item] < started[item]) {
+                            record(cookTime, onMachine[item * depth + finished[item] % depth], now);
+                            finished[item]++;
+                        }
+                    }
+                }
+                case CookCompletedOrder -> {
+                    int slot = slotOf(e.orderNumber);
+                    if (slot >= 0) {
+                        received[slot] = NONE;
+                    }
+                }
+                case CustomerLeavingRestaurant -> {
+                    int slot = slotOf(e.customer.getOrderNum());
+                    if (slot >= 0) {
+                        record(sojourn, seated[slot], now);
+                        owner[slot] = EMPTY;
+                    }
+                }
+                case SimulationEnded -> {
+                    if (printAtEnd) {
+                        System.out.println(report());
+                    }
+                }
+                default -> { }
+            }
+        }
+    }
+
+    private void allocate(int slots, int depth) {
+        this.mask = slots - 1;
+        this.depth = depth;
+        owner = new int[slots];
+        Arrays.fill(owner, EMPTY);
+        seated = new long[slots];
+        placed = new long[slots];
+        received = new long[slots];
+        started = new int[slots * FOODS];
+        finished = new int[slots * FOODS];
+        onMachine = new long[slots * FOODS * depth];
+    }
+
+    private int slotOf(int orderNum) {
+        int slot = orderNum & mask;
+        return owner[slot] == orderNum ? slot : -1;
+    }
+
+    /**
+     * Opens a slot for an order whose customer was just seated, growing the
+     * table if another order in flight already holds it.
+     */
+    private int open(int orderNum) {
+        while (owner[orderNum & mask] != EMPTY && owner[orderNum & mask] != orderNum) {
+            resize(owner.length * 2, depth);
+        }
+        int slot = orderNum & mask;
+        owner[slot] = orderNum;
+        placed[slot] = NONE;
+        received[slot] = NONE;
+        Arrays.fill(started, slot * FOODS, (slot + 1) * FOODS, 0);
+        Arrays.fill(finished, slot * FOODS, (slot + 1) * FOODS, 0);
+        return slot;
+    }
+
+    private void resize(int slots, int depth) {
+        int[] oldOwner = owner;
+        long[] oldSeated = seated;
+        long[] oldPlaced = placed;
+        long[] oldReceived = received;
+        int[] oldStarted = started;
+        int[] oldFinished = finished;
+        long[] oldOnMachine = onMachine;
+        int oldDepth = this.depth;
+        while (true) {
+            allocate(slots, depth);
+            if (rehash(oldOwner, oldSeated, oldPlaced, oldReceived, oldStarted, oldFinished, oldOnMachine, oldDepth)) {
+                return;
+            }
+            slots *= 2;
+        }
+    }
+
+    private boolean rehash(int[] oldOwner, long[] oldSeated, long[] oldPlaced, long[] oldReceived,
+                           int[] oldStarted, int[] oldFinished, long[] oldOnMachine, int oldDepth) {
+        for (int old = 0; old < oldOwner.length; old++) {
+            if (oldOwner[old] == EMPTY) {
+                continue;
+            }
+            int slot = oldOwner[old] & mask;
+            if (owner[slot] != EMPTY) {
+                return false;
+            }
+            owner[slot] = oldOwner[old];
+            seated[slot] = oldSeated[old];
+            placed[slot] = oldPlaced[old];
+            received[slot] = oldReceived[old];
+            for (int food = 0; food < FOODS; food++) {
+                int from = old * FOODS + food;
+                int to = slot * FOODS + food;
+                started[to] = oldStarted[from];
+                finished[to] = oldFinished[from];
+                for (int k = oldFinished[from]; k < oldStarted[from]; k++) {
+                    onMachine[to * depth + k % depth] = oldOnMachine[from * oldDepth + k % oldDepth];
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void record(Histogram histogram, long since, long now) {
+        if (since != NONE) {
+            histogram.recordSingleWriter((now - since) / 1000);
+        }
+    }
+
+    public Histogram queueWait() {
+        return queueWait;
+    }
+
+    public Histogram machineWait() {
+        return machineWait;
+    }
+
+    public Histogram cookTime() {
+        return cookTime;
+    }
+
+    public Histogram sojourn() {
+        return sojourn;
+    }
+
+    public String report() {
+        return "Stage timings:\n  " + queueWait + "\n  " + machineWait + "\n  " + cookTime + "\n  " + sojourn;
+    }
+}
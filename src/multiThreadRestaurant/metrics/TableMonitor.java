@@ -0,0 +1,56 @@
+package multiThreadRestaurant.metrics;
+
+import multiThreadRestaurant.service.TableAdmission;
+
+public class TableMonitor implements TableMonitorMBean {
+    private final TableAdmission frontDoor;
+
+    public TableMonitor(TableAdmission frontDoor) {
+        this.frontDoor = frontDoor;
+    }
+
+    @Override
+    public String getAdmissionPolicy() {
+        return frontDoor.getPolicy().name();
+    }
+
+    @Override
+    public int getTables() {
+        return frontDoor.getTables();
+    }
+
+    @Override
+    public int getSeatedCustomers() {
+        return frontDoor.seatedCustomers();
+    }
+
+    @Override
+    public int getQueueLength() {
+        return frontDoor.queueLength();
+    }
+
+    @Override
+    public int getPeakQueueLength() {
+        return frontDoor.peakQueueLength();
+    }
+
+    @Override
+    public long getTableWaitP99Micros() {
+        return frontDoor.waitTimes().percentile(99);
+    }
+
+    @Override
+    public long getLockAcquisitions() {
+        return frontDoor.lockStats().acquisitions();
+    }
+
+    @Override
+    public long getLockContended() {
+        return frontDoor.lockStats().contended();
+    }
+
+    @Override
+    public double getLockWaitMillis() {
+        return frontDoor.lockStats().waitNanos() / 1e6;
+    }
+}
@@ -0,0 +1,25 @@
+package multiThreadRestaurant.metrics;
+
+/**
+ * Live view of the front door: tables taken, customers waiting for one,
+ * and contention on its lock, whose wait times are real, not simulated.
+ */
+public interface TableMonitorMBean {
+    String getAdmissionPolicy();
+
+    int getTables();
+
+    int getSeatedCustomers();
+
+    int getQueueLength();
+
+    int getPeakQueueLength();
+
+    long getTableWaitP99Micros();
+
+    long getLockAcquisitions();
+
+    long getLockContended();
+
+    double getLockWaitMillis();
+}
@@ -1,18 +1,56 @@
 package multiThreadRestaurant.models;
 
-import service.Simulation;
-import service.SimulationEvent;
+import multiThreadRestaurant.Restaurant;
+import multiThreadRestaurant.service.SimulationEvent;
+import multiThreadRestaurant.service.WorkStealingKitchen;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.Objects;
-import java.util.Random;
 
 public class Cook implements Runnable {
+	private final int id;
 	private final String name;
+	private final String text;
+	private final Restaurant restaurant;
+	private final OrderTicket ticket = new OrderTicket(); // the order claimed last
+	private volatile int ordersCompleted = 0;
+	private volatile long cpuNanos = -1;
 
-	public Cook(String name) {
+	public Cook(int id, String name) {
+		this(id, name, null);
+	}
+
+	public Cook(int id, String name, Restaurant restaurant) {
+		this.id = id;
 		this.name = name;
+		this.text = "Cook{" +
+				"name='" + name + '\'' +
+				'}';
+		this.restaurant = restaurant;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public int getOrdersCompleted() {
+		return ordersCompleted;
+	}
+
+	/**
+	 * Counts an order completed for a cook with no thread of its own.
+	 */
+	public void orderCompleted() {
+		ordersCompleted++;
+	}
+
+	/**
+	 * CPU time this cook's thread used over its shift, once it has gone home;
+	 * -1 before that or where thread CPU time isn't measurable.
+	 */
+	public long getCpuNanos() {
+		return cpuNanos;
 	}
 
     @Override
@@ -30,46 +68,60 @@ public class Cook implements Runnable {
 
     @Override
     public String toString() {
-        return "Cook{" +
-                "name='" + name + '\'' +
-                '}';
+        return text;
     }
 
     public void run() {
-		Simulation.logEvent(SimulationEvent.cookStarting(this));
-        Random rnd = new Random();
+		restaurant.logEvent(SimulationEvent.cookStarting(this));
 		try {
+			WorkStealingKitchen kitchen = restaurant.getKitchen();
+			if (kitchen != null) {
+				runStealing(kitchen);
+			}
 			while(!Thread.interrupted()) {
-                if (Simulation.isOrderAvailable(this)) {
-                    int orderNum = Simulation.handleCookGetOrderNum(this);
-                    List<Food> order = Simulation.handleCookGettingOrder(this);
-                    List<Food> rawFoodList = new ArrayList<>();
-                    rawFoodList.addAll(order);
-                    Simulation.logEvent(SimulationEvent.cookReceivedOrder(this, new ArrayList<>(order), orderNum));
-                    while (rawFoodList.size() > 0) {
-                        Food rawFood = rawFoodList.remove(rnd.nextInt(rawFoodList.size()));
-                        if (!Simulation.machines.get(rawFood.name).makeFood(this, orderNum)) {
-                            rawFoodList.add(rawFood);
-                        }
-                        Food food = order.remove(rnd.nextInt(order.size()));
-                        if (!Simulation.checkCookingStatus(this, orderNum, food)) {
-                            order.add(food);
-                        }
-                    }
-                    while(order.size() > 0) {
-                        Food food = order.remove(rnd.nextInt(order.size()));
-                        if (!Simulation.checkCookingStatus(this, orderNum, food)) {
-                            order.add(food);
-                        }
-                    }
-
-                    Simulation.handleCompletedOrder(this, orderNum);
-                }
+                restaurant.claimNextOrder(ticket);
+                int orderNum = ticket.getOrderNum();
+                restaurant.logEvent(SimulationEvent.cookReceivedOrder(this, ticket.getItems(), orderNum));
+                restaurant.cookOrder(this, orderNum);
+                restaurant.handleCompletedOrder(this, orderNum);
+                ordersCompleted++;
 			}
-            Simulation.logEvent(SimulationEvent.cookEnding(this));
+            restaurant.logEvent(SimulationEvent.cookEnding(this));
 		}
 		catch(InterruptedException e) {
-			Simulation.logEvent(SimulationEvent.cookEnding(this));
+			restaurant.logEvent(SimulationEvent.cookEnding(this));
+		}
+		finally {
+			ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+			cpuNanos = threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : -1;
+		}
+	}
+
+	/**
+	 * Work-stealing shift: take finished items off the machines (own orders
+	 * first, then anyone's), otherwise take a new order, otherwise wait for
+	 * either. Returns when interrupted.
+	 */
+	private void runStealing(WorkStealingKitchen kitchen) throws InterruptedException {
+		int me = id - 1;
+		while (!Thread.interrupted()) {
+			long seen = kitchen.version();
+			long task = kitchen.next(me);
+			if (task != WorkStealingKitchen.NONE) {
+				if (restaurant.collectItem(this, task)) {
+					ordersCompleted++;
+				}
+				continue;
+			}
+			if (restaurant.tryClaimNextOrder(ticket)) {
+				restaurant.logEvent(SimulationEvent.cookReceivedOrder(this, ticket.getItems(), ticket.getOrderNum()));
+				if (restaurant.queueOrder(this, ticket.getOrderNum())) {
+					ordersCompleted++;
+				}
+				continue;
+			}
+			kitchen.awaitWork(seen);
 		}
+		Thread.currentThread().interrupt();
 	}
-}
\ No newline at end of file
+}
@@ -1,9 +1,11 @@
 package multiThreadRestaurant.models;
 
-import service.Simulation;
-import service.SimulationEvent;
+import multiThreadRestaurant.Restaurant;
+import multiThreadRestaurant.Simulation;
+import multiThreadRestaurant.exceptions.InvalidSimulationException;
+import multiThreadRestaurant.service.EventRecord;
+import multiThreadRestaurant.service.SimulationEvent;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -11,12 +13,44 @@ public class Customer implements Runnable {
 	private final String name;
 	private final List<Food> order;
 	private final int orderNum;
+	private final int partySize;
+	private final boolean vip;
+	private String text; // toString, made the first time an event is printed
 	private static int runningCounter = 0;
 
 	public Customer(String name, List<Food> order) {
+		this(name, order, 1, false);
+	}
+
+	/**
+	 * Throws if the event log couldn't record the order: a food beyond the
+	 * four food types, or more than 255 items of one of them.
+	 */
+	public Customer(String name, List<Food> order, int partySize, boolean vip) {
+		if (!EventRecord.fits(order)) {
+			throw new InvalidSimulationException("Order can't be logged, at most 255 items of each food type: " + order, 400);
+		}
 		this.name = name;
 		this.order = order;
 		this.orderNum = ++runningCounter;
+		this.partySize = partySize;
+		this.vip = vip;
+	}
+
+	public int getOrderNum() {
+		return orderNum;
+	}
+
+	public int getPartySize() {
+		return partySize;
+	}
+
+	public boolean isVip() {
+		return vip;
+	}
+
+	public List<Food> getOrder() {
+		return order;
 	}
 
     @Override
@@ -34,36 +68,50 @@ public class Customer implements Runnable {
 
     @Override
     public String toString() {
-        return "Customer{" +
-                "name='" + name + '\'' +
-                ", order=" + order +
-                ", orderNum=" + orderNum +
-                '}';
+        if (text == null) {
+            text = "Customer{" +
+                    "name='" + name + '\'' +
+                    ", order=" + order +
+                    ", orderNum=" + orderNum +
+                    '}';
+        }
+        return text;
     }
 
+    /**
+     * Visits the restaurant of the current {@link Simulation} run.
+     *
+     * @deprecated use {@link #visit}, which names the restaurant
+     */
+    @Deprecated
+    @Override
     public void run() {
-        Simulation.logEvent(SimulationEvent.customerStarting(this));
-        boolean entered = false;
-        while (!entered) {
-            entered = Simulation.handleCustomerEntrance();
-        }
-        Simulation.logEvent(SimulationEvent.customerEnteredRestaurant(this));
-
-        Simulation.logEvent(SimulationEvent.customerPlacedOrder(this, new ArrayList<>(this.order), this.orderNum));
-        Simulation.handlePlacedOrder(this.orderNum, this.order);
-
-        boolean customerWaiting = true;
-        while (customerWaiting) {
-            if (Simulation.checkOrderStatus(this.orderNum)) {
-                customerWaiting = false;
-                List<Food> orderComplete = Simulation.getCompletedOrder(this.orderNum);
-                if (orderComplete == null) {
-                    Simulation.logEvent(SimulationEvent.customerReceivedOrder(this, new ArrayList<Food>(), orderNum));
-                } else {
-                    Simulation.logEvent(SimulationEvent.customerReceivedOrder(this, orderComplete, orderNum));
-                }
-                Simulation.logEvent(SimulationEvent.customerLeavingRestaurant(this));
-                Simulation.handleCustomerLeft();
+        visit(Simulation.getRestaurant());
+    }
+
+    /**
+     * The customer's whole visit, on their own thread: wait for a table,
+     * order, wait for the food and leave.
+     */
+    public void visit(Restaurant restaurant) {
+        restaurant.logEvent(SimulationEvent.customerStarting(this));
+        boolean seated = false;
+        try {
+            restaurant.handleCustomerEntrance(this);
+            seated = true;
+            restaurant.logEvent(SimulationEvent.customerEnteredRestaurant(this));
+
+            restaurant.logEvent(SimulationEvent.customerPlacedOrder(this, this.order, this.orderNum));
+            restaurant.handlePlacedOrder(this.orderNum, this.order, this.vip);
+
+            restaurant.awaitOrder(this.orderNum);
+            restaurant.logEvent(SimulationEvent.customerReceivedOrder(this, restaurant.getCompletedOrder(this.orderNum), orderNum));
+            restaurant.logEvent(SimulationEvent.customerLeavingRestaurant(this));
+        } catch (InterruptedException e) {
+            System.out.println("Customer thread interrupted.");
+        } finally {
+            if (seated) {
+                restaurant.handleCustomerLeft();
             }
         }
 	}
@@ -3,12 +3,19 @@ package multiThreadRestaurant.models;
 import java.util.Objects;
 
 public class Food {
+	public final int id;
 	public final String name;
 	public final int cookTimeS;
+	private final String text;
 
-	public Food(String name, int cookTimeS) {
+	public Food(int id, String name, int cookTimeS) {
+		this.id = id;
 		this.name = name;
 		this.cookTimeS = cookTimeS;
+		this.text = "Food{" +
+				"name='" + name + '\'' +
+				", cookTimeS=" + cookTimeS +
+				'}';
 	}
 
 	@Override
@@ -26,9 +33,6 @@ public class Food {
 
 	@Override
 	public String toString() {
-		return "Food{" +
-				"name='" + name + '\'' +
-				", cookTimeS=" + cookTimeS +
-				'}';
+		return text;
 	}
 }
\ No newline at end of file
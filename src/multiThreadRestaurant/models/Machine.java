@@ -1,55 +1,228 @@
 package multiThreadRestaurant.models;
 
-import service.Simulation;
-import service.SimulationEvent;
+import multiThreadRestaurant.Restaurant;
+import multiThreadRestaurant.service.IntQueue;
+import multiThreadRestaurant.service.MachineExecutor;
+import multiThreadRestaurant.service.ScaledClock;
+import multiThreadRestaurant.service.SimulationEvent;
+import multiThreadRestaurant.enumeration.MachineExecutorMode;
 import multiThreadRestaurant.enumeration.MachineType;
 
+import java.util.concurrent.atomic.LongAdder;
+
 public class Machine {
 	
 	public final MachineType machineType;
 	public final Food machineFoodType;
-	public volatile int itemsCooking = 0;
+	public final int unit; // 0 for the only machine of its food type, else its number in the pool
+	private final String name;
+	private final Restaurant restaurant; // null for a machine that only names events
     private final int capacity;
+    private final MachineExecutor executor;
+    private final IntQueue backlog = new IntQueue(16); // order numbers of items waiting for a slot, guarded by the restaurant's order lock
+    private volatile int queued; // backlog size, republished under the lock for readers that don't hold it
+    /* Batching: up to batchSize items share one cooking cycle, each still taking a slot; 1 means every item cooks alone */
+    private final int batchSize;
+    private final long batchWindowNanos;
+    private long oldestQueuedNanos;
+    private boolean flushScheduled = false;
+    private final LongAdder capacityRejections = new LongAdder();
 
 	public Machine(MachineType machineType, Food food, int capacityIn) {
+		this(machineType, food, capacityIn, MachineExecutorMode.PLATFORM_POOL);
+	}
+
+	public Machine(MachineType machineType, Food food, int capacityIn, MachineExecutorMode executorMode) {
+		this(machineType, food, capacityIn, executorMode, 1, 0);
+	}
+
+	/**
+	 * A machine that cooks up to {@code batchSize} items in one cycle, capped
+	 * at its capacity since every item of a batch takes a slot. Queued items
+	 * wait at most {@code batchWindowMillis} for a batch to fill before a
+	 * partial batch goes on.
+	 */
+	public Machine(MachineType machineType, Food food, int capacityIn, MachineExecutorMode executorMode,
+				   int batchSize, long batchWindowMillis) {
+		this(machineType, food, capacityIn, executorMode, batchSize, batchWindowMillis, 0, null);
+	}
+
+	/**
+	 * Machine number {@code unit} of a pool cooking the same food in the
+	 * given restaurant.
+	 */
+	public Machine(MachineType machineType, Food food, int capacityIn, MachineExecutorMode executorMode,
+				   int batchSize, long batchWindowMillis, int unit, Restaurant restaurant) {
 		this.machineType = machineType;
 		this.machineFoodType = food;
+		this.unit = unit;
+		this.name = nameOf(machineType, unit);
+		this.restaurant = restaurant;
 		this.capacity = capacityIn;
+		this.batchSize = Math.max(1, Math.min(batchSize, capacityIn));
+		this.batchWindowNanos = batchWindowMillis * 1_000_000;
+		this.executor = new MachineExecutor(name, capacityIn, executorMode,
+				restaurant == null ? ScaledClock.REAL_TIME : restaurant.getClock());
 	}
 
-	public synchronized boolean makeFood(Cook cook, int orderNum) throws InterruptedException {
-	    if (itemsCooking < capacity) {
-            itemsCooking++;
-            Thread cookThread = new Thread(new CookAnItem(orderNum, this));
-            Simulation.logEvent(SimulationEvent.cookStartedFood(cook, machineFoodType, orderNum));
-            cookThread.start();
-            return true;
-        }
-        return false;
+	/**
+	 * Queues one item of this machine's food for the order, putting it on
+	 * straight away if a slot is free. Call with the restaurant's order lock held.
+	 */
+	public void enqueue(int orderNum) {
+		if (executor.inUse() == capacity) {
+			capacityRejections.increment();
+		}
+		if (batchSize > 1) {
+			if (backlog.isEmpty()) {
+				oldestQueuedNanos = restaurant.nanoTime();
+			}
+			backlog.add(orderNum);
+			queued = backlog.size();
+			startBatches();
+			return;
+		}
+		if (backlog.isEmpty() && start(orderNum)) {
+			return;
+		}
+		backlog.add(orderNum);
+		queued = backlog.size();
 	}
 
-	private class CookAnItem implements Runnable {
-	    private final int orderNum;
-	    private final Machine machine;
+	private boolean start(int orderNum) {
+		if (!executor.tryAcquire()) {
+			return false;
+		}
+		restaurant.logEvent(SimulationEvent.cookStartedFood(restaurant.orderHandler(orderNum), machineFoodType, orderNum));
+		executor.submit(() -> restaurant.logEvent(SimulationEvent.machineCookingFood(this, machineFoodType)),
+				machineFoodType.cookTimeS,
+				() -> restaurant.updateCookedOrder(this, orderNum, machineFoodType));
+		return true;
+	}
 
-	    CookAnItem(int orderNum, Machine machine) {
-	        this.orderNum = orderNum;
-	        this.machine = machine;
-        }
+	/**
+	 * Frees the slot of a cooked item once a cook has taken it off the
+	 * machine, and puts the next queued item on. Call with the restaurant's
+	 * order lock held.
+	 */
+	public void itemCollected() {
+		itemsCollected(1);
+	}
 
-		public void run() {
-			try {
-                Simulation.logEvent(SimulationEvent.machineCookingFood(machine, machineFoodType));
-                Thread.sleep(machineFoodType.cookTimeS);
-                Simulation.updateCookedOrder(machine, orderNum, machineFoodType);
+	/**
+	 * Frees the slots of a batch of {@code count} items that came off the
+	 * machine together. Call with the restaurant's order lock held.
+	 */
+	public void itemsCollected(int count) {
+		executor.release(count);
+		if (batchSize > 1) {
+			startBatches();
+		} else if (!backlog.isEmpty() && start(backlog.get(0))) {
+			backlog.poll();
+			queued = backlog.size();
+		}
+	}
 
-			} catch(InterruptedException e) {
-                System.out.println("Cooking thread interrupted.");
-            }
+	/**
+	 * Puts queued items on as batches while there are free slots for a whole
+	 * batch and it is either full or has waited out the window; otherwise
+	 * arranges to look again when the window closes. Call with the
+	 * restaurant's order lock held.
+	 */
+	public void startBatches() {
+		while (!backlog.isEmpty()) {
+			long waited = restaurant.nanoTime() - oldestQueuedNanos;
+			if (backlog.size() < batchSize && waited < batchWindowNanos) {
+				if (!flushScheduled) {
+					flushScheduled = true;
+					executor.schedule(() -> restaurant.flushMachine(this), batchWindowNanos - waited);
+				}
+				return;
+			}
+			int size = Math.min(batchSize, backlog.size());
+			if (!executor.tryAcquire(size)) {
+				return;
+			}
+			// whatever is left keeps the current window start, so it never waits a second full window
+			int[] batch = new int[size];
+			for (int i = 0; i < batch.length; i++) {
+				batch[i] = backlog.poll();
+				restaurant.logEvent(SimulationEvent.cookStartedFood(restaurant.orderHandler(batch[i]), machineFoodType, batch[i]));
+			}
+			queued = backlog.size();
+			executor.submit(() -> {
+						for (int i = 0; i < batch.length; i++) {
+							restaurant.logEvent(SimulationEvent.machineCookingFood(this, machineFoodType));
+						}
+					},
+					machineFoodType.cookTimeS,
+					() -> restaurant.updateCookedBatch(this, batch));
 		}
 	}
 
+	/**
+	 * The batch window timer fired. Call with the restaurant's order lock held.
+	 */
+	public void windowClosed() {
+		flushScheduled = false;
+		startBatches();
+	}
+
+	/**
+	 * Items waiting for a free slot. Safe to read without the order lock,
+	 * e.g. from a monitor.
+	 */
+	public int itemsQueued() {
+		return queued;
+	}
+
+	public int itemsCooking() {
+		return executor.inUse();
+	}
+
+	/**
+	 * Busy slots plus the slots the queued items will need, per slot: how
+	 * many cooking cycles a new item waits, give or take.
+	 */
+	public double load() {
+		return (double) (itemsCooking() + itemsQueued()) / capacity;
+	}
+
+	/**
+	 * Items that arrived to find every slot taken.
+	 */
+	public long capacityRejections() {
+		return capacityRejections.sum();
+	}
+
+	/**
+	 * Share of slot time spent cooking since the machine was set up.
+	 */
+	public double busyRatio() {
+		return executor.busyRatio();
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public void shutdown() {
+		executor.shutdown();
+	}
+
 	public String toString() {
+		return name;
+	}
+
+	public static String nameOf(MachineType machineType, int unit) {
+		return unit == 0 ? nameOf(machineType) : nameOf(machineType) + " #" + unit;
+	}
+
+	public static String nameOf(MachineType machineType) {
 		switch (machineType) {
 			case FOUNTAIN: 		return "Fountain";
 			case FRYER:			return "Fryer";
@@ -58,4 +231,4 @@ public class Machine {
 			default:			return "INVALID MACHINE";
 		}
 	}
-}
\ No newline at end of file
+}
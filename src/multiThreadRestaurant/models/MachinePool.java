@@ -0,0 +1,33 @@
+package multiThreadRestaurant.models;
+
+import multiThreadRestaurant.service.MachineRouter;
+
+/**
+ * The machines cooking one food type, with the router that spreads items
+ * over them. A lone machine has unit 0; pooled machines are units 1 to n.
+ */
+public class MachinePool {
+	private final Machine[] machines;
+	private final MachineRouter router;
+
+	public MachinePool(Machine[] machines, MachineRouter router) {
+		this.machines = machines;
+		this.router = router;
+	}
+
+	/**
+	 * Queues one item of the order on the machine the router picks. Call
+	 * with the restaurant's order lock held.
+	 */
+	public void enqueue(int orderNum) {
+		router.route(machines).enqueue(orderNum);
+	}
+
+	public Machine get(int unit) {
+		return machines[Math.max(unit, 1) - 1];
+	}
+
+	public Machine[] getMachines() {
+		return machines;
+	}
+}
@@ -0,0 +1,35 @@
+package multiThreadRestaurant.models;
+
+import java.util.List;
+
+/**
+ * A cook's hand on the order it claimed last: the order number and its
+ * items, filled in by the dispatch queue in the same step that claims the
+ * order. A cook keeps one ticket for its whole shift, so claiming an order
+ * allocates nothing.
+ */
+public class OrderTicket {
+    private int orderNum = -1;
+    private List<Food> items;
+
+    public void claim(int orderNum, List<Food> items) {
+        this.orderNum = orderNum;
+        this.items = items;
+    }
+
+    public int getOrderNum() {
+        return orderNum;
+    }
+
+    public List<Food> getItems() {
+        return items;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderTicket{" +
+                "orderNum=" + orderNum +
+                ", items=" + items +
+                '}';
+    }
+}
@@ -0,0 +1,26 @@
+package multiThreadRestaurant.service;
+
+/**
+ * When customers show up. A run asks for one arrival at a time and only
+ * then creates the customer, so an open-ended stream costs the same memory
+ * as a short one. The run closes the process once it stops asking, however
+ * it ends.
+ */
+public interface ArrivalProcess extends AutoCloseable {
+    long END = -1;
+
+    /**
+     * Simulated nanoseconds from the opening of the restaurant to the next
+     * arrival, never earlier than the previous one, or {@link #END} once no
+     * more customers are coming.
+     */
+    long nextArrivalNanos();
+
+    /**
+     * Releases whatever the process reads its arrivals from; nothing by
+     * default.
+     */
+    @Override
+    default void close() {
+    }
+}
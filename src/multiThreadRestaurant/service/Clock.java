@@ -0,0 +1,24 @@
+package multiThreadRestaurant.service;
+
+/**
+ * Where a run gets its time from. Cook times, batch windows, event
+ * timestamps and wait statistics are all in simulated nanoseconds on the
+ * run's clock; how long that takes on the wall is up to the clock.
+ */
+public interface Clock {
+    /**
+     * Now, in simulated nanoseconds.
+     */
+    long nanoTime();
+
+    /**
+     * Blocks the caller for {@code simulatedNanos} of simulated time.
+     */
+    void sleepNanos(long simulatedNanos) throws InterruptedException;
+
+    /**
+     * Wall-clock nanoseconds that {@code simulatedNanos} of simulated time
+     * take, for handing delays to real timers.
+     */
+    long realNanos(long simulatedNanos);
+}
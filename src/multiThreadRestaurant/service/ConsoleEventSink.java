@@ -0,0 +1,35 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.exceptions.IllegalRestaurantStateException;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Prints events one per line, a whole batch per write to the console.
+ */
+public class ConsoleEventSink implements EventSink {
+    private final Writer out;
+    private final EventText text = new EventText();
+
+    public ConsoleEventSink() {
+        this(System.out);
+    }
+
+    public ConsoleEventSink(PrintStream out) {
+        this.out = new OutputStreamWriter(out, out.charset());
+    }
+
+    @Override
+    public void write(List<SimulationEvent> batch) {
+        try {
+            text.writeLines(batch, out);
+            out.flush();
+        } catch (IOException e) {
+            throw new IllegalRestaurantStateException("Unable to print events: " + e.getMessage(), 500);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.Restaurant;
+import multiThreadRestaurant.models.Customer;
+
+/**
+ * Sends each customer arriving at a {@link multiThreadRestaurant.Franchise}
+ * to one of its restaurants. Called from the one thread that admits
+ * customers, so implementations don't need to be thread safe.
+ */
+public interface CustomerDispatcher {
+    /**
+     * The index in {@code shards} of the restaurant the customer goes to.
+     */
+    int route(Customer customer, Restaurant[] shards);
+}
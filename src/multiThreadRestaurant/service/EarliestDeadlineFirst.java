@@ -0,0 +1,53 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.models.Food;
+
+import java.util.List;
+
+/**
+ * Every order gets a deadline when it is placed: its total cook time plus a
+ * slack, which is shorter for VIP customers. The waiting order with the
+ * earliest deadline goes first. Unlike SPT, a large order's deadline
+ * eventually comes up, so nothing waits forever.
+ */
+public class EarliestDeadlineFirst implements OrderSchedulingPolicy {
+    private final OrderHeap orders = new OrderHeap();
+    private final long slackNanos;
+    private final long vipSlackNanos;
+    private final long nanosPerCookTimeUnit;
+
+    /**
+     * Slacks of 2s, or 0.5s for VIPs, with cook times in milliseconds.
+     */
+    public EarliestDeadlineFirst() {
+        this(2_000_000_000L, 500_000_000L, 1_000_000L);
+    }
+
+    public EarliestDeadlineFirst(long slackNanos, long vipSlackNanos, long nanosPerCookTimeUnit) {
+        this.slackNanos = slackNanos;
+        this.vipSlackNanos = vipSlackNanos;
+        this.nanosPerCookTimeUnit = nanosPerCookTimeUnit;
+    }
+
+    @Override
+    public void add(int orderNum, List<Food> items, boolean vip, long placedNanos) {
+        long deadline = placedNanos + OrderSchedulingPolicy.totalCookTime(items) * nanosPerCookTimeUnit
+                + (vip ? vipSlackNanos : slackNanos);
+        orders.add(orderNum, deadline);
+    }
+
+    @Override
+    public int next() {
+        return orders.poll();
+    }
+
+    @Override
+    public int size() {
+        return orders.size();
+    }
+
+    @Override
+    public String toString() {
+        return "EDF";
+    }
+}
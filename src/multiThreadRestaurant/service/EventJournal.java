@@ -0,0 +1,144 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.exceptions.IllegalRestaurantStateException;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Append-only binary event journal. Every event is written as one
+ * fixed-width {@link EventRecord} straight into a memory-mapped region of
+ * the file, so logging a million events costs 32MB of page cache and no
+ * heap, and the journal can be replayed later without rebuilding any
+ * Customer, Cook or Machine.
+ *
+ * File layout: a {@value #HEADER_SIZE}-byte header (magic, version, record
+ * size, record count) followed by the records in sequence order. The count
+ * is only filled in on close; a journal that was never closed is read up to
+ * the first empty record.
+ */
+public class EventJournal implements EventSink {
+    public static final int HEADER_SIZE = 32;
+    private static final int MAGIC = 0x4C4E524A; // "JRNL"
+    private static final int VERSION = 1;
+    private static final long WRITE_CHUNK = 64L << 20;
+    private static final long READ_CHUNK = 1L << 30;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final EventRecord record = new EventRecord();
+    private MappedByteBuffer chunk;
+    private long chunkStart = 0;
+    private int chunkOffset;
+    private long records = 0;
+
+    public EventJournal(Path path) {
+        this.path = path;
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            mapChunk();
+            chunk.putInt(0, MAGIC);
+            chunk.putInt(4, VERSION);
+            chunk.putInt(8, EventRecord.SIZE);
+            chunk.putLong(16, -1);
+            chunkOffset = HEADER_SIZE;
+        } catch (IOException e) {
+            throw new IllegalRestaurantStateException("Unable to open event journal " + path + ": " + e.getMessage(), 500);
+        }
+    }
+
+    private void mapChunk() throws IOException {
+        chunk = channel.map(FileChannel.MapMode.READ_WRITE, chunkStart, WRITE_CHUNK);
+        chunk.order(ByteOrder.LITTLE_ENDIAN);
+        chunkOffset = 0;
+    }
+
+    @Override
+    public void write(List<SimulationEvent> batch) {
+        try {
+            for (SimulationEvent event : batch) {
+                if (chunkOffset == WRITE_CHUNK) {
+                    chunk.force();
+                    chunkStart += WRITE_CHUNK;
+                    mapChunk();
+                }
+                record.set(event).writeTo(chunk, chunkOffset);
+                chunkOffset += EventRecord.SIZE;
+                records++;
+            }
+        } catch (IOException e) {
+            throw new IllegalRestaurantStateException("Unable to write event journal " + path + ": " + e.getMessage(), 500);
+        }
+    }
+
+    /**
+     * Records the event count in the header and trims the file to the
+     * records actually written.
+     */
+    @Override
+    public void close() {
+        try {
+            chunk.force();
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN).putLong(16, records);
+            header.force();
+            chunk = null;
+            channel.truncate(HEADER_SIZE + records * EventRecord.SIZE);
+            channel.close();
+        } catch (IOException e) {
+            throw new IllegalRestaurantStateException("Unable to close event journal " + path + ": " + e.getMessage(), 500);
+        }
+    }
+
+    public long recordsWritten() {
+        return records;
+    }
+
+    /**
+     * Feeds the journal's records, in order, to {@code consumer} through a
+     * single reused {@link EventRecord}; stops early when the consumer
+     * returns false. Returns the number of records read.
+     */
+    public static long replay(Path path, Predicate<EventRecord> consumer) {
+        EventRecord record = new EventRecord();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, HEADER_SIZE));
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (size < HEADER_SIZE || header.getInt(0) != MAGIC) {
+                throw new IllegalRestaurantStateException(path + " is not an event journal", 400);
+            }
+            if (header.getInt(4) != VERSION || header.getInt(8) != EventRecord.SIZE) {
+                throw new IllegalRestaurantStateException("Unsupported event journal version " + header.getInt(4) + " in " + path, 400);
+            }
+            long count = header.getLong(16);
+            long end = count < 0 ? size : Math.min(size, HEADER_SIZE + count * EventRecord.SIZE);
+
+            long sequence = 0;
+            for (long start = HEADER_SIZE; start < end; start += READ_CHUNK) {
+                long length = Math.min(READ_CHUNK, end - start);
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+                chunk.order(ByteOrder.LITTLE_ENDIAN);
+                for (int offset = 0; offset + EventRecord.SIZE <= length; offset += EventRecord.SIZE) {
+                    if (!record.readFrom(chunk, offset, sequence)) {
+                        return sequence;
+                    }
+                    sequence++;
+                    if (!consumer.test(record)) {
+                        return sequence;
+                    }
+                }
+            }
+            return sequence;
+        } catch (IOException e) {
+            throw new IllegalRestaurantStateException("Unable to read event journal " + path + ": " + e.getMessage(), 500);
+        }
+    }
+}
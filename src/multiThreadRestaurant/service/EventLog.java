@@ -0,0 +1,182 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.exceptions.IllegalRestaurantStateException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous event pipeline. Producers claim a global sequence number and
+ * copy the event into the matching slot of a lock-free ring; a single
+ * consumer thread reads the ring strictly in sequence order and hands the
+ * events to the sinks in batches.
+ *
+ * Slots are event objects made once, on the ring's first lap, and reused
+ * from then on, so an event the producer builds and drops straight away
+ * never outlives the publish call and costs the heap nothing. Sinks get
+ * the slots themselves and must copy what they keep.
+ *
+ * Sequence numbers are claimed atomically inside {@link #publish}, so if one
+ * publish happens-before another, the first event always reaches the sinks
+ * first. That is the same ordering guarantee the old synchronized logEvent
+ * gave {@link Validate}.
+ *
+ * A sink that throws is dropped and the rest keep getting events, so one
+ * broken sink can neither kill the consumer nor leave producers waiting
+ * forever for ring space. The first failure is raised from {@link #close}.
+ */
+public class EventLog {
+    private static final int MAX_BATCH = 1024;
+    private static final long MAX_IDLE_PARK_NANOS = 1_000_000;
+
+    private final SimulationEvent[] ring;
+    private final AtomicLongArray published; // sequence number each slot last held, -1 before the first
+    private final int mask;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private volatile long consumed = 0;
+    private volatile boolean open = true;
+    private final List<EventSink> sinks;
+    private final boolean[] failed; // sinks dropped after throwing, touched only by the consumer until it is joined
+    private IllegalRestaurantStateException failure; // the first sink failure, likewise
+    private final Thread consumer;
+    private final int shard;
+    private final Clock clock;
+
+    public EventLog(int ringSize, List<EventSink> sinks) {
+        this(ringSize, sinks, 0);
+    }
+
+    /**
+     * A log whose events are stamped as coming from franchise shard
+     * {@code shard}.
+     */
+    public EventLog(int ringSize, List<EventSink> sinks, int shard) {
+        this(ringSize, sinks, shard, ScaledClock.REAL_TIME);
+    }
+
+    /**
+     * A log that timestamps events with {@code clock}, e.g. a scaled or a
+     * discrete-event run's virtual clock.
+     */
+    public EventLog(int ringSize, List<EventSink> sinks, int shard, Clock clock) {
+        this.shard = shard;
+        this.clock = clock;
+        int size = Integer.highestOneBit(Math.max(2, ringSize - 1)) << 1;
+        this.ring = new SimulationEvent[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+        this.mask = size - 1;
+        this.sinks = new ArrayList<>(sinks);
+        this.failed = new boolean[this.sinks.size()];
+        this.consumer = new Thread(this::drain, "event-log");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    /**
+     * Copies the event into the next slot, stamped with its sequence number
+     * and the current time, and queues it. The event itself is left alone
+     * and may be dropped or reused. Only blocks when the consumer has fallen
+     * a whole ring behind.
+     */
+    public void publish(SimulationEvent event) {
+        long sequence = nextSequence.getAndIncrement();
+        while (sequence - consumed > mask) {
+            LockSupport.parkNanos(10_000);
+        }
+        int index = (int) sequence & mask;
+        SimulationEvent slot = ring[index];
+        if (slot == null) {
+            slot = ring[index] = new SimulationEvent();
+        }
+        slot.copyFrom(event);
+        slot.stamp(sequence, clock.nanoTime(), shard);
+        published.setRelease(index, sequence);
+    }
+
+    public long published() {
+        return nextSequence.get();
+    }
+
+    private void drain() {
+        List<SimulationEvent> batch = new ArrayList<>(MAX_BATCH);
+        long cursor = 0;
+        long idleNanos = 0;
+        while (open || cursor < nextSequence.get()) {
+            int slot = (int) cursor & mask;
+            if (published.getAcquire(slot) == cursor) {
+                batch.add(ring[slot]);
+                cursor++;
+                idleNanos = 0;
+                if (batch.size() < MAX_BATCH) {
+                    continue;
+                }
+            }
+            if (!batch.isEmpty()) {
+                dispatch(batch);
+                consumed = cursor;
+            } else {
+                idleNanos = Math.min(MAX_IDLE_PARK_NANOS, Math.max(1_000, idleNanos * 2));
+                LockSupport.parkNanos(idleNanos);
+            }
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+            consumed = cursor;
+        }
+    }
+
+    private void dispatch(List<SimulationEvent> batch) {
+        for (int i = 0; i < sinks.size(); i++) {
+            if (failed[i]) {
+                continue;
+            }
+            try {
+                sinks.get(i).write(batch);
+            } catch (Throwable e) {
+                failed[i] = true;
+                recordFailure(sinks.get(i), "failed", e);
+            }
+        }
+        for (SimulationEvent event : batch) {
+            event.clear();
+        }
+        batch.clear();
+    }
+
+    private void recordFailure(EventSink sink, String what, Throwable e) {
+        if (failure == null) {
+            failure = new IllegalRestaurantStateException("Event sink " + sink.getClass().getSimpleName() + " " + what + ": " + e, 500);
+            failure.initCause(e);
+        }
+    }
+
+    /**
+     * Waits for every published event to reach the sinks, then closes them.
+     * Call only once no producer can publish any more. Throws the first
+     * failure of any sink, after every sink has been closed.
+     */
+    public void close() {
+        open = false;
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (EventSink sink : sinks) {
+            try {
+                sink.close();
+            } catch (Throwable e) {
+                recordFailure(sink, "failed to close", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.enumeration.EventType;
+import multiThreadRestaurant.enumeration.FoodType;
+import multiThreadRestaurant.enumeration.MachineType;
+import multiThreadRestaurant.exceptions.IllegalRestaurantStateException;
+import multiThreadRestaurant.models.Food;
+import multiThreadRestaurant.models.Machine;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * One event flattened to primitives: the fixed-width form used by the
+ * {@link EventJournal} and by {@link StreamingValidator}. Instances are
+ * mutable and meant to be reused, so reading a journal or validating a
+ * stream allocates nothing per event.
+ *
+ * Binary layout, {@value #SIZE} bytes, little endian:
+ * <pre>
+ *  0  byte  EventType ordinal + 1 (0 marks the end of a journal)
+ *  1  byte  Food.id, or -1
+ *  2  byte  MachineType ordinal, or -1
+ *  3  byte  machine unit within its food type's pool, 0 for a lone machine
+ *  4  int   actor: cook id or customer order number, or -1
+ *  8  int   order number
+ * 12  int   item counts of the order, one byte per Food.id
+ * 16  int   param: machine capacity, announced or configured
+ * 20  int   franchise shard, 0 for a restaurant on its own
+ * 24  long  timestamp (nanoseconds on the run's clock at publish), or -1
+ * </pre>
+ * SimulationStarting has no actor, order, items, food or machine; its
+ * first four parameters occupy the actor, order, counts and param slots
+ * instead, the machines per food type the unit byte and the work-stealing
+ * flag the food byte.
+ */
+public class EventRecord {
+    public static final int SIZE = 32;
+    private static final EventType[] TYPES = EventType.values();
+    private static final MachineType[] MACHINES = MachineType.values();
+
+    private EventType type;
+    private int food;
+    private int machine;
+    private int unit;
+    private int actor;
+    private int orderNumber;
+    private int counts;
+    private int param;
+    private int shard;
+    private long timestamp;
+    private long sequence;
+
+    /**
+     * Overwrites this record with the given event.
+     */
+    public EventRecord set(SimulationEvent e) {
+        type = e.event;
+        food = e.food != null ? e.food.id : e.machine != null ? e.machine.machineFoodType.id : -1;
+        machine = e.machine != null ? e.machine.machineType.ordinal() : -1;
+        unit = e.machine != null ? e.machine.unit : 0;
+        actor = e.cook != null ? e.cook.getId() : e.customer != null ? e.customer.getOrderNum() : -1;
+        orderNumber = e.orderNumber;
+        counts = e.orderCounts;
+        param = e.simParams != null ? e.simParams[0] : 0;
+        if (type == EventType.SimulationStarting) {
+            actor = e.simParams[0];
+            orderNumber = e.simParams[1];
+            counts = e.simParams[2];
+            param = e.simParams[3];
+            unit = e.simParams.length > 4 ? e.simParams[4] : 1;
+            food = e.simParams.length > 5 ? e.simParams[5] : 0;
+        }
+        shard = e.getShard();
+        timestamp = e.getTimestamp();
+        sequence = e.getSequence();
+        return this;
+    }
+
+    /**
+     * Writes this record at {@code offset} without moving the buffer's
+     * position.
+     */
+    public void writeTo(ByteBuffer buffer, int offset) {
+        buffer.put(offset, (byte) (type.ordinal() + 1));
+        buffer.put(offset + 1, (byte) food);
+        buffer.put(offset + 2, (byte) machine);
+        buffer.put(offset + 3, (byte) unit);
+        buffer.putInt(offset + 4, actor);
+        buffer.putInt(offset + 8, orderNumber);
+        buffer.putInt(offset + 12, counts);
+        buffer.putInt(offset + 16, param);
+        buffer.putInt(offset + 20, shard);
+        buffer.putLong(offset + 24, timestamp);
+    }
+
+    /**
+     * Loads the record at {@code offset}. Returns false, leaving this record
+     * untouched, if the slot is empty.
+     */
+    public boolean readFrom(ByteBuffer buffer, int offset, long sequence) {
+        int tag = buffer.get(offset);
+        if (tag <= 0 || tag > TYPES.length) {
+            return false;
+        }
+        type = TYPES[tag - 1];
+        food = buffer.get(offset + 1);
+        machine = buffer.get(offset + 2);
+        unit = buffer.get(offset + 3) & 0xFF;
+        actor = buffer.getInt(offset + 4);
+        orderNumber = buffer.getInt(offset + 8);
+        counts = buffer.getInt(offset + 12);
+        param = buffer.getInt(offset + 16);
+        shard = buffer.getInt(offset + 20);
+        timestamp = buffer.getLong(offset + 24);
+        this.sequence = sequence;
+        return true;
+    }
+
+    /**
+     * Item counts of an order packed one byte per food type; a null order is
+     * empty. Counts in place, allocating nothing.
+     */
+    public static int pack(List<Food> order) {
+        long packed = tryPack(order);
+        if (packed < 0) {
+            throw new IllegalRestaurantStateException("Order too large for the binary event format: " + order, 500);
+        }
+        return (int) packed;
+    }
+
+    /**
+     * Whether {@link #pack} can pack an order: foods of the first four types
+     * only, and at most 255 items of each.
+     */
+    public static boolean fits(List<Food> order) {
+        return tryPack(order) >= 0;
+    }
+
+    /**
+     * The packed counts as a non-negative long, or -1 if they don't fit.
+     */
+    private static long tryPack(List<Food> order) {
+        int packed = 0;
+        if (order == null) {
+            return packed;
+        }
+        for (Food item : order) {
+            int shift = 8 * item.id;
+            if (item.id >= 4 || ((packed >>> shift) & 0xFF) == 255) {
+                return -1;
+            }
+            packed += 1 << shift;
+        }
+        return packed & 0xFFFFFFFFL;
+    }
+
+    /**
+     * How many items of one food type a packed order holds.
+     */
+    public static int count(int packed, int foodId) {
+        return foodId < 4 ? (packed >>> (8 * foodId)) & 0xFF : 0;
+    }
+
+    /**
+     * Whether the per-food counts, indexed by Food.id, equal a packed order.
+     */
+    public static boolean sameCounts(int[] counts, int packed) {
+        for (int id = 0; id < counts.length; id++) {
+            if (counts[id] != count(packed, id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public EventType type() {
+        return type;
+    }
+
+    public int foodId() {
+        return food;
+    }
+
+    public MachineType machineType() {
+        return machine < 0 ? null : MACHINES[machine];
+    }
+
+    public int machineUnit() {
+        return unit;
+    }
+
+    public int actorId() {
+        return actor;
+    }
+
+    public int orderNumber() {
+        return orderNumber;
+    }
+
+    public int packedCounts() {
+        return counts;
+    }
+
+    public int count(int foodId) {
+        return (counts >>> (8 * foodId)) & 0xFF;
+    }
+
+    /**
+     * Machine capacity of a MachineStarting or MachineConfigured event, or
+     * parameter {@code i} (customers, cooks, tables, capacity, machines per
+     * food type, work stealing) of SimulationStarting.
+     */
+    public int simParam(int i) {
+        if (type != EventType.SimulationStarting) {
+            return param;
+        }
+        switch (i) {
+            case 0: return actor;
+            case 1: return orderNumber;
+            case 2: return counts;
+            case 3: return param;
+            case 4: return Math.max(unit, 1);
+            default: return food > 0 ? 1 : 0;
+        }
+    }
+
+    public int shard() {
+        return shard;
+    }
+
+    public long timestamp() {
+        return timestamp;
+    }
+
+    public long sequence() {
+        return sequence;
+    }
+
+    public String cookName() {
+        return "Cook #" + actor;
+    }
+
+    public String customerName() {
+        return "Customer #" + actor;
+    }
+
+    public String machineName() {
+        return machine < 0 ? "INVALID MACHINE" : Machine.nameOf(MACHINES[machine], unit);
+    }
+
+    private String foodName() {
+        return food < 0 ? "null" : FoodType.all[food].toString();
+    }
+
+    /**
+     * A packed order as text, e.g. {@code [2x burger, 1x coffee]}.
+     */
+    public static String items(int packed) {
+        return appendItems(new StringBuilder(), packed).toString();
+    }
+
+    /**
+     * Renders a packed order onto {@code text}, as {@link #items} words it.
+     */
+    public static StringBuilder appendItems(StringBuilder text, int packed) {
+        text.append('[');
+        boolean first = true;
+        for (Food item : FoodType.all) {
+            if (count(packed, item.id) > 0) {
+                text.append(first ? "" : ", ").append(count(packed, item.id)).append("x ").append(item.name);
+                first = false;
+            }
+        }
+        return text.append(']');
+    }
+
+    /**
+     * Same wording as {@link SimulationEvent#toString}, with actors named by
+     * id since names are not stored.
+     */
+    @Override
+    public String toString() {
+        switch (type) {
+            case SimulationStarting:
+                return "Starting simulation: " + (simParam(0) < 0 ? "open-ended number of" : simParam(0)) + " customers; " +
+                        simParam(1) + " cooks; " + simParam(2) + " tables; " +
+                        "machine capacity " + simParam(3) +
+                        (simParam(4) > 1 ? "; " + simParam(4) + " machines per food type" : "") +
+                        (simParam(5) != 0 ? "; work stealing" : "") + ".";
+            case SimulationEnded:
+                return "Simulation ended.";
+            case CustomerStarting:
+                return customerName() + " going to Restaurant.";
+            case CustomerEnteredRestaurant:
+                return customerName() + " entered Restaurant.";
+            case CustomerPlacedOrder:
+                return customerName() + " placing order " + orderNumber + " " + items(counts);
+            case CustomerReceivedOrder:
+                return customerName() + " received order " + orderNumber + " " + items(counts);
+            case CustomerLeavingRestaurant:
+                return customerName() + " leaving Restaurant.";
+            case CookStarting:
+                return cookName() + " reporting for work.";
+            case CookReceivedOrder:
+                return cookName() + " starting order " + orderNumber + " " + items(counts);
+            case CookStartedFood:
+                return cookName() + " preparing " + foodName() + " for order " + orderNumber;
+            case CookFinishedFood:
+                return cookName() + " finished " + foodName() + " for order " + orderNumber;
+            case CookCompletedOrder:
+                return cookName() + " completed order " + orderNumber;
+            case CookEnding:
+                return cookName() + " going home for the night.";
+            case MachineStarting:
+                return machineName() + " starting up for making " + foodName() + "; " + param + ".";
+            case MachineStartingFood:
+                return machineName() + " making " + foodName() + ".";
+            case MachineDoneFood:
+                return machineName() + " completed " + foodName() + ".";
+            case MachineEnding:
+                return machineName() + " shutting down.";
+            case MachineConfigured:
+                return machineName() + " configured for making " + foodName() + "; " + param + ".";
+            default:
+                throw new IllegalRestaurantStateException("Illegal event. Unable to recognize this event.", 400);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package multiThreadRestaurant.service;
+
+import java.util.List;
+
+/**
+ * Destination for logged simulation events. The {@link EventLog} consumer
+ * thread is the only caller, always in global sequence order, so sinks
+ * don't need to be thread safe.
+ */
+public interface EventSink {
+    /**
+     * Receives the next run of events. The list and the events in it are
+     * reused once this returns, so {@link SimulationEvent#copy} anything you
+     * want to keep.
+     */
+    void write(List<SimulationEvent> batch);
+
+    default void close() {
+    }
+}
@@ -0,0 +1,28 @@
+package multiThreadRestaurant.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Turns batches of events into lines of text for the text sinks. A batch
+ * is rendered into one reused builder and handed to the writer through a
+ * reused char buffer, so printing makes no garbage per event.
+ */
+class EventText {
+    private final StringBuilder text = new StringBuilder(1 << 16);
+    private char[] chars = new char[1 << 16];
+
+    void writeLines(List<SimulationEvent> batch, Writer out) throws IOException {
+        text.setLength(0);
+        for (SimulationEvent event : batch) {
+            event.appendTo(text).append(System.lineSeparator());
+        }
+        int length = text.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, 2 * chars.length)];
+        }
+        text.getChars(0, length, chars, 0);
+        out.write(chars, 0, length);
+    }
+}
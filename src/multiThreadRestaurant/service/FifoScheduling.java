@@ -0,0 +1,33 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.models.Food;
+
+import java.util.List;
+
+/**
+ * Orders are cooked in the order they were placed. An
+ * {@link OrderDispatchQueue} given this policy keeps its orders on a
+ * lock-free {@link OrderRing} and never asks the policy, so this class only
+ * names the choice.
+ */
+public class FifoScheduling implements OrderSchedulingPolicy {
+    @Override
+    public void add(int orderNum, List<Food> items, boolean vip, long placedNanos) {
+        throw new IllegalStateException("FIFO orders are kept on the dispatch queue's ring");
+    }
+
+    @Override
+    public int next() {
+        throw new IllegalStateException("FIFO orders are kept on the dispatch queue's ring");
+    }
+
+    @Override
+    public int size() {
+        throw new IllegalStateException("FIFO orders are kept on the dispatch queue's ring");
+    }
+
+    @Override
+    public String toString() {
+        return "FIFO";
+    }
+}
@@ -0,0 +1,46 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.exceptions.IllegalRestaurantStateException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes events one per line to a text file, through a buffer that is only
+ * flushed when the log is closed.
+ */
+public class FileEventSink implements EventSink {
+    private final Path path;
+    private final BufferedWriter writer;
+    private final EventText text = new EventText();
+
+    public FileEventSink(Path path) {
+        this.path = path;
+        try {
+            this.writer = Files.newBufferedWriter(path);
+        } catch (IOException e) {
+            throw new IllegalRestaurantStateException("Unable to open event file " + path + ": " + e.getMessage(), 500);
+        }
+    }
+
+    @Override
+    public void write(List<SimulationEvent> batch) {
+        try {
+            text.writeLines(batch, writer);
+        } catch (IOException e) {
+            throw new IllegalRestaurantStateException("Unable to write event file " + path + ": " + e.getMessage(), 500);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new IllegalRestaurantStateException("Unable to close event file " + path + ": " + e.getMessage(), 500);
+        }
+    }
+}
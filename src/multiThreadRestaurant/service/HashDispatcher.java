@@ -0,0 +1,22 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.Restaurant;
+import multiThreadRestaurant.models.Customer;
+
+/**
+ * Sends each customer to a restaurant picked by hashing their order number:
+ * no shared state between arrivals and the same customer always lands in
+ * the same place, but no notice of how busy the restaurants are.
+ */
+public class HashDispatcher implements CustomerDispatcher {
+    @Override
+    public int route(Customer customer, Restaurant[] shards) {
+        int h = customer.getOrderNum() * 0x9E3779B9;
+        return Math.floorMod(h ^ (h >>> 16), shards.length);
+    }
+
+    @Override
+    public String toString() {
+        return "hash";
+    }
+}
@@ -0,0 +1,58 @@
+package multiThreadRestaurant.service;
+
+/**
+ * Growable FIFO ring of ints. Not thread safe; callers guard it with their
+ * own lock.
+ */
+public class IntQueue {
+    public static final int NONE = -1;
+
+    private int[] ring;
+    private int head = 0;
+    private int size = 0;
+
+    public IntQueue(int initialCapacity) {
+        ring = new int[Integer.highestOneBit(Math.max(2, initialCapacity - 1)) << 1];
+    }
+
+    public void add(int value) {
+        if (size == ring.length) {
+            int[] grown = new int[ring.length * 2];
+            for (int i = 0; i < size; i++) {
+                grown[i] = ring[(head + i) & (ring.length - 1)];
+            }
+            ring = grown;
+            head = 0;
+        }
+        ring[(head + size) & (ring.length - 1)] = value;
+        size++;
+    }
+
+    /**
+     * Removes and returns the oldest value, or {@link #NONE} if empty.
+     */
+    public int poll() {
+        if (size == 0) {
+            return NONE;
+        }
+        int value = ring[head];
+        head = (head + 1) & (ring.length - 1);
+        size--;
+        return value;
+    }
+
+    /**
+     * The i-th oldest value, without removing it.
+     */
+    public int get(int i) {
+        return ring[(head + i) & (ring.length - 1)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,25 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.models.Machine;
+
+/**
+ * Every item goes to the machine with the lowest {@link Machine#load()},
+ * the first one on a tie. Looks at the whole pool each time.
+ */
+public class LeastLoadedRouter implements MachineRouter {
+    @Override
+    public Machine route(Machine[] pool) {
+        Machine best = pool[0];
+        for (int i = 1; i < pool.length; i++) {
+            if (pool[i].load() < best.load()) {
+                best = pool[i];
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public String toString() {
+        return "least-loaded";
+    }
+}
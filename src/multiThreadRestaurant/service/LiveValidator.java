@@ -0,0 +1,55 @@
+package multiThreadRestaurant.service;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Validates the event stream while the simulation runs. It sits on the
+ * event log as a sink and reports the first violation exactly once, so the
+ * caller can stop the run instead of finding out at the end.
+ */
+public class LiveValidator implements EventSink {
+    private final StreamingValidator validator = new StreamingValidator();
+    private final Consumer<String> onViolation;
+    private boolean reported = false;
+
+    public LiveValidator(Consumer<String> onViolation) {
+        this.onViolation = onViolation;
+    }
+
+    @Override
+    public void write(List<SimulationEvent> batch) {
+        if (reported) {
+            return;
+        }
+        for (SimulationEvent event : batch) {
+            if (!validator.accept(event)) {
+                report();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs the end-of-log checks once the log has been drained.
+     */
+    @Override
+    public void close() {
+        if (!reported && !validator.finish()) {
+            report();
+        }
+    }
+
+    private void report() {
+        reported = true;
+        onViolation.accept(validator.getViolation());
+    }
+
+    public String getViolation() {
+        return validator.getViolation();
+    }
+
+    public StreamingValidator getValidator() {
+        return validator;
+    }
+}
@@ -0,0 +1,180 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.enumeration.MachineExecutorMode;
+import multiThreadRestaurant.exceptions.InvalidSimulationException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the cooking jobs of one machine and enforces its capacity. A job
+ * holds one of {@code capacity} slots from the moment it is accepted until
+ * its cooked item has been collected, which is exactly the window
+ * {@link Validate} counts as "on the machine".
+ */
+public class MachineExecutor {
+    private final MachineExecutorMode mode;
+    private final int capacity;
+    private final Semaphore slots;
+    private final ExecutorService workers;
+    private final Clock clock;
+    private final VirtualClock virtualClock; // SIMULATED mode only
+    /* Slot-nanoseconds of clock time spent busy, accrued whenever a slot is taken or freed */
+    private final long openedNanos;
+    private long busySlotNanos = 0;
+    private long accruedToNanos;
+
+    public MachineExecutor(String name, int capacity, MachineExecutorMode mode) {
+        this(name, capacity, mode, ScaledClock.REAL_TIME);
+    }
+
+    /**
+     * An executor that times cooking on {@code clock}. In SIMULATED mode that
+     * must be a {@link VirtualClock}, on which cook times are scheduled
+     * instead of waited out.
+     */
+    public MachineExecutor(String name, int capacity, MachineExecutorMode mode, Clock clock) {
+        this.virtualClock = clock instanceof VirtualClock ? (VirtualClock) clock : null;
+        if (mode == MachineExecutorMode.SIMULATED && virtualClock == null) {
+            throw new InvalidSimulationException("SIMULATED machines need a virtual clock", 400);
+        }
+        this.mode = mode;
+        this.clock = clock;
+        this.openedNanos = clock.nanoTime();
+        this.accruedToNanos = openedNanos;
+        this.capacity = capacity;
+        this.slots = new Semaphore(capacity);
+        switch (mode) {
+            case PLATFORM_POOL -> workers = Executors.newFixedThreadPool(capacity, daemonThreads(name));
+            case VIRTUAL -> workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+            default -> workers = null;
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        return Thread.ofPlatform().name(prefix + "-", 0).daemon().factory();
+    }
+
+    private static class SharedTimer {
+        static final ScheduledExecutorService INSTANCE =
+                Executors.newScheduledThreadPool(2, daemonThreads("machine-timer"));
+    }
+
+    private static ScheduledExecutorService sharedTimer() {
+        return SharedTimer.INSTANCE;
+    }
+
+    /**
+     * Claims a free slot, or returns false when every slot is taken.
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * Claims {@code count} free slots at once, for a batch of that many
+     * items, or none of them.
+     */
+    public synchronized boolean tryAcquire(int count) {
+        accrueBusyTime();
+        return slots.tryAcquire(count);
+    }
+
+    private void accrueBusyTime() {
+        long now = clock.nanoTime();
+        busySlotNanos += inUse() * (now - accruedToNanos);
+        accruedToNanos = now;
+    }
+
+    /**
+     * Starts a job on slots claimed with {@link #tryAcquire(int)}: runs
+     * {@code start}, waits {@code cookTimeMs} on the clock and then runs
+     * {@code done}.
+     */
+    public void submit(Runnable start, long cookTimeMs, Runnable done) {
+        long cookNanos = TimeUnit.MILLISECONDS.toNanos(cookTimeMs);
+        Runnable job = () -> {
+            start.run();
+            try {
+                clock.sleepNanos(cookNanos);
+            } catch (InterruptedException e) {
+                System.out.println("Cooking thread interrupted.");
+                return;
+            }
+            done.run();
+        };
+        switch (mode) {
+            case THREAD_PER_ITEM -> new Thread(job).start();
+            case PLATFORM_POOL, VIRTUAL -> workers.execute(job);
+            case TIMER -> sharedTimer().execute(() -> {
+                start.run();
+                sharedTimer().schedule(done, clock.realNanos(cookNanos), TimeUnit.NANOSECONDS);
+            });
+            case SIMULATED -> {
+                start.run();
+                virtualClock.schedule(done, cookNanos);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code task} once after {@code delayNanos} of simulated time, on
+     * the shared machine timer or the virtual clock.
+     */
+    public void schedule(Runnable task, long delayNanos) {
+        if (virtualClock != null) {
+            virtualClock.schedule(task, delayNanos);
+        } else {
+            sharedTimer().schedule(task, clock.realNanos(delayNanos), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Frees the slot of an item whose cooked result has been collected.
+     */
+    public void release() {
+        release(1);
+    }
+
+    /**
+     * Frees the slots of a batch of {@code count} collected items.
+     */
+    public synchronized void release(int count) {
+        accrueBusyTime();
+        slots.release(count);
+    }
+
+    /**
+     * Share of slot time spent busy since the executor was created, on the
+     * clock it cooks by.
+     */
+    public synchronized double busyRatio() {
+        accrueBusyTime();
+        long elapsed = accruedToNanos - openedNanos;
+        return elapsed == 0 ? 0 : (double) busySlotNanos / elapsed / capacity;
+    }
+
+    public int inUse() {
+        return capacity - slots.availablePermits();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void shutdown() {
+        if (workers == null) {
+            return;
+        }
+        workers.shutdown();
+        try {
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.models.Machine;
+
+/**
+ * Picks which machine of a food type's pool gets the next item. The
+ * {@link multiThreadRestaurant.models.MachinePool} calls it with
+ * the restaurant's order lock held, so implementations don't need to be thread
+ * safe.
+ */
+public interface MachineRouter {
+    Machine route(Machine[] pool);
+}
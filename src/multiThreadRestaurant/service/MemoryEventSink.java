@@ -0,0 +1,23 @@
+package multiThreadRestaurant.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps every event, in order, for {@link Validate} and the caller of
+ * {@code runSimulation}.
+ */
+public class MemoryEventSink implements EventSink {
+    private final List<SimulationEvent> events = new ArrayList<>();
+
+    @Override
+    public void write(List<SimulationEvent> batch) {
+        for (SimulationEvent event : batch) {
+            events.add(event.copy());
+        }
+    }
+
+    public List<SimulationEvent> getEvents() {
+        return events;
+    }
+}
@@ -0,0 +1,207 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.metrics.LockStats;
+import multiThreadRestaurant.models.Food;
+import multiThreadRestaurant.models.OrderTicket;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Orders waiting for a cook. A cook claims an order's number and items in
+ * one step, into an {@link OrderTicket} it keeps for its whole shift, so
+ * placing and claiming an order allocate nothing and box nothing. Idle
+ * cooks park inside {@link #claimNext} until an order arrives; each placed
+ * order wakes at most one of them.
+ *
+ * With the default FIFO policy the orders sit on a lock-free
+ * {@link OrderRing}, and customers and cooks never block each other. Any
+ * other {@link OrderSchedulingPolicy} has to see every waiting order to pick
+ * one, so it runs under the queue's lock, with the items of the waiting
+ * orders kept in a table indexed by {@code orderNum & mask}.
+ *
+ * The capacity is how many orders can wait at once: a restaurant passes its
+ * number of tables, since every waiting order belongs to a seated customer.
+ * Placing an order on a full FIFO ring waits for a cook to make room.
+ */
+public class OrderDispatchQueue {
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private final OrderRing ring; // FIFO only, else null
+    private final Semaphore ready = new Semaphore(0); // orders on the ring, FIFO only
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition orderPlaced = lock.newCondition();
+    private final LockStats lockStats = new LockStats();
+    private final OrderSchedulingPolicy orders;
+    private int[] heldOrder; // order number in each slot, or EMPTY; guarded by lock
+    private Object[] heldItems; // items of that order, by slot
+
+    public OrderDispatchQueue() {
+        this(new FifoScheduling());
+    }
+
+    public OrderDispatchQueue(OrderSchedulingPolicy policy) {
+        this(policy, DEFAULT_CAPACITY);
+    }
+
+    public OrderDispatchQueue(OrderSchedulingPolicy policy, int capacity) {
+        this.orders = policy;
+        this.ring = policy instanceof FifoScheduling ? new OrderRing(capacity) : null;
+        if (ring == null) {
+            allocateHeld(Integer.highestOneBit(Math.max(2, capacity - 1)) << 1);
+        }
+    }
+
+    public void place(int orderNum, List<Food> items, boolean vip, long placedNanos) {
+        if (ring != null) {
+            while (!ring.offer(orderNum, items)) {
+                Thread.yield();
+            }
+            ready.release();
+            return;
+        }
+        lockStats.lock(lock);
+        try {
+            orders.add(orderNum, items, vip, placedNanos);
+            hold(orderNum, items);
+            orderPlaced.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Atomically takes the next order into {@code ticket}, parking the
+     * caller while there is none.
+     */
+    public void claimNext(OrderTicket ticket) throws InterruptedException {
+        if (ring != null) {
+            ready.acquire();
+            take(ticket);
+            return;
+        }
+        lockStats.lockInterruptibly(lock);
+        try {
+            while (orders.size() == 0) {
+                orderPlaced.await();
+            }
+            int orderNum = orders.next();
+            ticket.claim(orderNum, unhold(orderNum));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the next order into {@code ticket} if there is one, without
+     * waiting; otherwise returns false.
+     */
+    public boolean tryClaimNext(OrderTicket ticket) {
+        if (ring != null) {
+            if (!ready.tryAcquire()) {
+                return false;
+            }
+            take(ticket);
+            return true;
+        }
+        lockStats.lock(lock);
+        try {
+            if (orders.size() == 0) {
+                return false;
+            }
+            int orderNum = orders.next();
+            ticket.claim(orderNum, unhold(orderNum));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes an order off the ring once a permit says one has been placed;
+     * waits out a customer still writing the order at the head.
+     */
+    private void take(OrderTicket ticket) {
+        while (!ring.poll(ticket)) {
+            Thread.yield();
+        }
+    }
+
+    private void allocateHeld(int slots) {
+        heldOrder = new int[slots];
+        Arrays.fill(heldOrder, EMPTY);
+        heldItems = new Object[slots];
+    }
+
+    private void hold(int orderNum, List<Food> items) {
+        while (heldOrder[orderNum & (heldOrder.length - 1)] != EMPTY) {
+            growHeld();
+        }
+        int slot = orderNum & (heldOrder.length - 1);
+        heldOrder[slot] = orderNum;
+        heldItems[slot] = items;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Food> unhold(int orderNum) {
+        int slot = orderNum & (heldOrder.length - 1);
+        List<Food> items = (List<Food>) heldItems[slot];
+        heldOrder[slot] = EMPTY;
+        heldItems[slot] = null;
+        return items;
+    }
+
+    /**
+     * Doubles the held-order table until no two waiting orders share a slot.
+     */
+    private void growHeld() {
+        int[] oldOrder = heldOrder;
+        Object[] oldItems = heldItems;
+        int slots = oldOrder.length * 2;
+        while (true) {
+            allocateHeld(slots);
+            if (rehashHeld(oldOrder, oldItems)) {
+                return;
+            }
+            slots *= 2;
+        }
+    }
+
+    private boolean rehashHeld(int[] oldOrder, Object[] oldItems) {
+        for (int old = 0; old < oldOrder.length; old++) {
+            if (oldOrder[old] == EMPTY) {
+                continue;
+            }
+            int slot = oldOrder[old] & (heldOrder.length - 1);
+            if (heldOrder[slot] != EMPTY) {
+                return false;
+            }
+            heldOrder[slot] = oldOrder[old];
+            heldItems[slot] = oldItems[old];
+        }
+        return true;
+    }
+
+    /**
+     * Contention on the queue's lock; always zero under FIFO, which takes no lock.
+     */
+    public LockStats lockStats() {
+        return lockStats;
+    }
+
+    public int pending() {
+        if (ring != null) {
+            return ring.size();
+        }
+        lockStats.lock(lock);
+        try {
+            return orders.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
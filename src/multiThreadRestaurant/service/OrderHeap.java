@@ -0,0 +1,95 @@
+package multiThreadRestaurant.service;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of order numbers keyed by a long priority, ties broken by
+ * insertion order. Primitive arrays only, so adding and polling allocate
+ * nothing once the heap has grown. Not thread safe.
+ */
+public class OrderHeap {
+    private long[] priorities = new long[64];
+    private long[] tickets = new long[64];
+    private int[] orders = new int[64];
+    private int size = 0;
+    private long nextTicket = 0;
+
+    public void add(int orderNum, long priority) {
+        if (size == orders.length) {
+            priorities = Arrays.copyOf(priorities, size * 2);
+            tickets = Arrays.copyOf(tickets, size * 2);
+            orders = Arrays.copyOf(orders, size * 2);
+        }
+        int i = size++;
+        long ticket = nextTicket++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(priority, ticket, priorities[parent], tickets[parent])) {
+                break;
+            }
+            move(parent, i);
+            i = parent;
+        }
+        set(i, orderNum, priority, ticket);
+    }
+
+    /**
+     * Removes and returns the order with the lowest priority, or
+     * {@link IntQueue#NONE} if empty.
+     */
+    public int poll() {
+        if (size == 0) {
+            return IntQueue.NONE;
+        }
+        int top = orders[0];
+        size--;
+        if (size > 0) {
+            int orderNum = orders[size];
+            long priority = priorities[size];
+            long ticket = tickets[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && before(priorities[child + 1], tickets[child + 1], priorities[child], tickets[child])) {
+                    child++;
+                }
+                if (!before(priorities[child], tickets[child], priority, ticket)) {
+                    break;
+                }
+                move(child, i);
+                i = child;
+            }
+            set(i, orderNum, priority, ticket);
+        }
+        return top;
+    }
+
+    /**
+     * Priority of the order {@link #poll()} would return next; only valid
+     * when not empty.
+     */
+    public long peekPriority() {
+        return priorities[0];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static boolean before(long priority, long ticket, long otherPriority, long otherTicket) {
+        return priority < otherPriority || (priority == otherPriority && ticket < otherTicket);
+    }
+
+    private void move(int from, int to) {
+        set(to, orders[from], priorities[from], tickets[from]);
+    }
+
+    private void set(int i, int orderNum, long priority, long ticket) {
+        orders[i] = orderNum;
+        priorities[i] = priority;
+        tickets[i] = ticket;
+    }
+}
@@ -0,0 +1,83 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.models.Food;
+import multiThreadRestaurant.models.OrderTicket;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free ring of waiting orders for any number of customers and
+ * cooks: each slot holds an order number and its items, and a sequence
+ * number that says whether the slot is free to fill or ready to take.
+ * Customers and cooks claim a position with one CAS and never block each
+ * other, and nothing is allocated or boxed per order.
+ */
+public class OrderRing {
+    private final int mask;
+    private final int[] orderNums;
+    private final Object[] items;
+    private final AtomicLongArray sequence;
+    private final AtomicLong tail = new AtomicLong(); // next position to fill
+    private final AtomicLong head = new AtomicLong(); // next position to take
+
+    public OrderRing(int capacity) {
+        int slots = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = slots - 1;
+        orderNums = new int[slots];
+        items = new Object[slots];
+        sequence = new AtomicLongArray(slots);
+        for (int i = 0; i < slots; i++) {
+            sequence.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an order at the tail, or returns false if the ring is full.
+     */
+    public boolean offer(int orderNum, List<Food> order) {
+        while (true) {
+            long pos = tail.get();
+            int slot = (int) pos & mask;
+            long seq = sequence.get(slot);
+            if (seq == pos) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    orderNums[slot] = orderNum;
+                    items[slot] = order;
+                    sequence.set(slot, pos + 1);
+                    return true;
+                }
+            } else if (seq < pos) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Takes the order at the head into {@code ticket}, or returns false if
+     * the ring is empty or the order at the head is still being written.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean poll(OrderTicket ticket) {
+        while (true) {
+            long pos = head.get();
+            int slot = (int) pos & mask;
+            long seq = sequence.get(slot);
+            if (seq == pos + 1) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    ticket.claim(orderNums[slot], (List<Food>) items[slot]);
+                    items[slot] = null;
+                    sequence.set(slot, pos + mask + 1);
+                    return true;
+                }
+            } else if (seq < pos + 1) {
+                return false;
+            }
+        }
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+}
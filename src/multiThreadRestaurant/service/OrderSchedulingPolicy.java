@@ -0,0 +1,37 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.models.Food;
+
+import java.util.List;
+
+/**
+ * Decides which waiting order a free cook claims next. The
+ * {@link OrderDispatchQueue} calls it with its lock held, so
+ * implementations don't need to be thread safe.
+ */
+public interface OrderSchedulingPolicy {
+    /**
+     * A customer placed an order at {@code placedNanos} on the run's clock.
+     */
+    void add(int orderNum, List<Food> items, boolean vip, long placedNanos);
+
+    /**
+     * Removes and returns the order to cook next, or {@link IntQueue#NONE}
+     * if none is waiting.
+     */
+    int next();
+
+    int size();
+
+    /**
+     * Sum of the machine times of an order's items, in the same unit as
+     * {@code Food.cookTimeS}.
+     */
+    static long totalCookTime(List<Food> items) {
+        long total = 0;
+        for (Food food : items) {
+            total += food.cookTimeS;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,290 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.enumeration.FoodType;
+import multiThreadRestaurant.models.Cook;
+import multiThreadRestaurant.models.Food;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * State of every order between being placed and being handed to its
+ * customer, in flat primitive arrays indexed by a slot derived from the
+ * order number: per-food counters of items placed, cooked and collected, the
+ * cook handling it and how many of its items are still on the machines, a
+ * completion bit, and the cook and customer parked on it. Nothing is boxed,
+ * and placing, cooking, collecting and completing an order allocate nothing.
+ *
+ * A slot is {@code orderNum & mask}; if two live orders land on the same
+ * slot the table doubles until they don't. Live orders are bounded by the
+ * number of tables, so that hardly ever happens after warm-up.
+ *
+ * Not thread safe: {@link multiThreadRestaurant.Restaurant} guards it with
+ * its order lock, which also keeps the matching events in order.
+ */
+public class OrderTable {
+    private static final int FOODS = FoodType.all.length;
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private int mask;
+    private int[] owner;
+    private int[] placed;
+    private int[] cooked;
+    private int[] collected;
+    private Object[] items;
+    private Cook[] handlers;
+    private int[] remaining;
+    private Thread[] cookWaiters;
+    private Thread[] waiters;
+    private BitSet complete;
+
+    public OrderTable(int initialSlots) {
+        allocate(Integer.highestOneBit(Math.max(2, initialSlots - 1)) << 1);
+    }
+
+    private void allocate(int slots) {
+        mask = slots - 1;
+        owner = new int[slots];
+        Arrays.fill(owner, EMPTY);
+        placed = new int[slots * FOODS];
+        cooked = new int[slots * FOODS];
+        collected = new int[slots * FOODS];
+        items = new Object[slots];
+        handlers = new Cook[slots];
+        remaining = new int[slots];
+        cookWaiters = new Thread[slots];
+        waiters = new Thread[slots];
+        complete = new BitSet(slots);
+    }
+
+    private int slotOf(int orderNum) {
+        int slot = orderNum & mask;
+        return owner[slot] == orderNum ? slot : -1;
+    }
+
+    /**
+     * Opens a slot for a newly placed order, growing the table if another
+     * live order already holds it.
+     */
+    public void place(int orderNum, List<Food> order) {
+        while (owner[orderNum & mask] != EMPTY) {
+            grow();
+        }
+        int slot = orderNum & mask;
+        owner[slot] = orderNum;
+        items[slot] = order;
+        handlers[slot] = null;
+        remaining[slot] = 0;
+        cookWaiters[slot] = null;
+        waiters[slot] = null;
+        complete.clear(slot);
+        int base = slot * FOODS;
+        Arrays.fill(placed, base, base + FOODS, 0);
+        Arrays.fill(cooked, base, base + FOODS, 0);
+        Arrays.fill(collected, base, base + FOODS, 0);
+        for (Food food : order) {
+            placed[base + food.id]++;
+        }
+    }
+
+    private void grow() {
+        int[] oldOwner = owner;
+        int[] oldPlaced = placed;
+        int[] oldCooked = cooked;
+        int[] oldCollected = collected;
+        Object[] oldItems = items;
+        Cook[] oldHandlers = handlers;
+        int[] oldRemaining = remaining;
+        Thread[] oldCookWaiters = cookWaiters;
+        Thread[] oldWaiters = waiters;
+        BitSet oldComplete = complete;
+        int slots = oldOwner.length * 2;
+        while (true) {
+            allocate(slots);
+            if (rehash(oldOwner, oldPlaced, oldCooked, oldCollected, oldItems, oldHandlers, oldRemaining,
+                    oldCookWaiters, oldWaiters, oldComplete)) {
+                return;
+            }
+            slots *= 2;
+        }
+    }
+
+    private boolean rehash(int[] oldOwner, int[] oldPlaced, int[] oldCooked, int[] oldCollected,
+                           Object[] oldItems, Cook[] oldHandlers, int[] oldRemaining,
+                           Thread[] oldCookWaiters, Thread[] oldWaiters, BitSet oldComplete) {
+        for (int old = 0; old < oldOwner.length; old++) {
+            if (oldOwner[old] == EMPTY) {
+                continue;
+            }
+            int slot = oldOwner[old] & mask;
+            if (owner[slot] != EMPTY) {
+                return false;
+            }
+            owner[slot] = oldOwner[old];
+            items[slot] = oldItems[old];
+            handlers[slot] = oldHandlers[old];
+            remaining[slot] = oldRemaining[old];
+            cookWaiters[slot] = oldCookWaiters[old];
+            waiters[slot] = oldWaiters[old];
+            complete.set(slot, oldComplete.get(old));
+            System.arraycopy(oldPlaced, old * FOODS, placed, slot * FOODS, FOODS);
+            System.arraycopy(oldCooked, old * FOODS, cooked, slot * FOODS, FOODS);
+            System.arraycopy(oldCollected, old * FOODS, collected, slot * FOODS, FOODS);
+        }
+        return true;
+    }
+
+    /**
+     * The items as placed by the customer, or null for an unknown order.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Food> items(int orderNum) {
+        int slot = slotOf(orderNum);
+        return slot < 0 ? null : (List<Food>) items[slot];
+    }
+
+    /**
+     * Hands the order to a cook, with all of its items still to be cooked.
+     */
+    public void assign(int orderNum, Cook cook) {
+        int slot = slotOf(orderNum);
+        if (slot < 0) {
+            return;
+        }
+        handlers[slot] = cook;
+        int base = slot * FOODS;
+        int items = 0;
+        for (int food = 0; food < FOODS; food++) {
+            items += placed[base + food];
+        }
+        remaining[slot] = items;
+    }
+
+    /**
+     * The cook handling the order, or null.
+     */
+    public Cook handler(int orderNum) {
+        int slot = slotOf(orderNum);
+        return slot < 0 ? null : handlers[slot];
+    }
+
+    /**
+     * Items of an assigned order not yet collected off their machines.
+     */
+    public int itemsRemaining(int orderNum) {
+        int slot = slotOf(orderNum);
+        return slot < 0 ? 0 : remaining[slot];
+    }
+
+    /**
+     * Registers the cook thread to unpark when the last item is collected.
+     */
+    public void setCookWaiter(int orderNum, Thread cook) {
+        int slot = slotOf(orderNum);
+        if (slot >= 0) {
+            cookWaiters[slot] = cook;
+        }
+    }
+
+    /**
+     * Removes and returns the cook thread parked on the order, if any.
+     */
+    public Thread takeCookWaiter(int orderNum) {
+        int slot = slotOf(orderNum);
+        if (slot < 0) {
+            return null;
+        }
+        Thread cook = cookWaiters[slot];
+        cookWaiters[slot] = null;
+        return cook;
+    }
+
+    /**
+     * A machine finished one item of the order.
+     */
+    public void cooked(int orderNum, Food food) {
+        int slot = slotOf(orderNum);
+        if (slot >= 0) {
+            cooked[slot * FOODS + food.id]++;
+        }
+    }
+
+    /**
+     * Takes one finished item of {@code food} off the machine for the order,
+     * or returns false if none is waiting.
+     */
+    public boolean collect(int orderNum, Food food) {
+        int slot = slotOf(orderNum);
+        if (slot < 0 || cooked[slot * FOODS + food.id] == 0) {
+            return false;
+        }
+        cooked[slot * FOODS + food.id]--;
+        collected[slot * FOODS + food.id]++;
+        remaining[slot]--;
+        return true;
+    }
+
+    /**
+     * Marks the order complete and returns the customer parked on it, if any,
+     * for the caller to unpark once it has released the lock.
+     */
+    public Thread complete(int orderNum) {
+        int slot = slotOf(orderNum);
+        if (slot < 0) {
+            return null;
+        }
+        complete.set(slot);
+        Thread waiter = waiters[slot];
+        waiters[slot] = null;
+        return waiter;
+    }
+
+    public boolean isComplete(int orderNum) {
+        int slot = slotOf(orderNum);
+        return slot >= 0 && complete.get(slot);
+    }
+
+    /**
+     * Registers the thread to unpark when the order completes.
+     */
+    public void setWaiter(int orderNum, Thread waiter) {
+        int slot = slotOf(orderNum);
+        if (slot >= 0) {
+            waiters[slot] = waiter;
+        }
+    }
+
+    /**
+     * Hands a completed order to its customer and frees its slot. Returns
+     * the collected food, or null if the order isn't complete.
+     */
+    public List<Food> takeCompleted(int orderNum) {
+        int slot = slotOf(orderNum);
+        if (slot < 0 || !complete.get(slot)) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        List<Food> order = (List<Food>) items[slot];
+        int base = slot * FOODS;
+        boolean asPlaced = Arrays.equals(collected, base, base + FOODS, placed, base, base + FOODS);
+        owner[slot] = EMPTY;
+        items[slot] = null;
+        handlers[slot] = null;
+        cookWaiters[slot] = null;
+        waiters[slot] = null;
+        complete.clear(slot);
+        return asPlaced ? order : collectedItems(base);
+    }
+
+    private List<Food> collectedItems(int base) {
+        List<Food> food = new ArrayList<>();
+        for (Food type : FoodType.all) {
+            for (int n = collected[base + type.id]; n > 0; n--) {
+                food.add(type);
+            }
+        }
+        return food;
+    }
+}
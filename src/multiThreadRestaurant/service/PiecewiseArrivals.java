@@ -0,0 +1,63 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.exceptions.InvalidSimulationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Poisson arrivals whose rate changes on a schedule, e.g. a quiet morning,
+ * a lunch rush and a lull:
+ *
+ * <pre>
+ * new PiecewiseArrivals().segment(600, 0.5).segment(300, 4).segment(600, 1)
+ * </pre>
+ *
+ * A gap that runs past the end of a segment is redrawn at the next
+ * segment's rate from its start, which keeps each segment Poisson at its
+ * own rate. A rate of 0 closes the doors for the segment. Arrivals end
+ * with the last segment.
+ */
+public class PiecewiseArrivals implements ArrivalProcess {
+    private final List<double[]> segments = new ArrayList<>(); // {end nanos, rate per second}
+    private final Random rnd;
+    private int segment = 0;
+    private double at = 0;
+
+    public PiecewiseArrivals() {
+        this.rnd = new Random();
+    }
+
+    public PiecewiseArrivals(long seed) {
+        this.rnd = new Random(seed);
+    }
+
+    /**
+     * Appends {@code seconds} of simulated time at {@code customersPerSecond}.
+     */
+    public PiecewiseArrivals segment(double seconds, double customersPerSecond) {
+        if (!(seconds > 0) || !(customersPerSecond >= 0)) {
+            throw new InvalidSimulationException("An arrival segment needs a length above 0 and a rate of at least 0", 400);
+        }
+        double start = segments.isEmpty() ? 0 : segments.get(segments.size() - 1)[0];
+        segments.add(new double[] { start + seconds * 1e9, customersPerSecond });
+        return this;
+    }
+
+    @Override
+    public long nextArrivalNanos() {
+        while (segment < segments.size()) {
+            double end = segments.get(segment)[0];
+            double rate = segments.get(segment)[1];
+            double next = rate > 0 ? at + PoissonArrivals.gap(rnd, 1e9 / rate) : end;
+            if (next < end) {
+                at = next;
+                return (long) at;
+            }
+            at = end;
+            segment++;
+        }
+        return END;
+    }
+}
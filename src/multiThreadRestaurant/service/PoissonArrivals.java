@@ -0,0 +1,44 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.exceptions.InvalidSimulationException;
+
+import java.util.Random;
+
+/**
+ * Customers arriving independently at a steady average rate: the gaps
+ * between them are exponentially distributed. Never runs out.
+ */
+public class PoissonArrivals implements ArrivalProcess {
+    private final double meanGapNanos;
+    private final Random rnd;
+    private double at = 0;
+
+    public PoissonArrivals(double customersPerSecond) {
+        this(customersPerSecond, new Random());
+    }
+
+    public PoissonArrivals(double customersPerSecond, long seed) {
+        this(customersPerSecond, new Random(seed));
+    }
+
+    private PoissonArrivals(double customersPerSecond, Random rnd) {
+        if (!(customersPerSecond > 0)) {
+            throw new InvalidSimulationException("An arrival rate must be above 0 customers per second", 400);
+        }
+        this.meanGapNanos = 1e9 / customersPerSecond;
+        this.rnd = rnd;
+    }
+
+    @Override
+    public long nextArrivalNanos() {
+        at += gap(rnd, meanGapNanos);
+        return (long) at;
+    }
+
+    /**
+     * An exponentially distributed gap with the given mean.
+     */
+    static double gap(Random rnd, double meanNanos) {
+        return -Math.log(1 - rnd.nextDouble()) * meanNanos;
+    }
+}
@@ -0,0 +1,32 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.models.Machine;
+
+import java.util.Random;
+
+/**
+ * Samples two different machines at random and takes the one with the lower
+ * {@link Machine#load()}: close to least-loaded routing while looking at two
+ * machines however big the pool.
+ */
+public class PowerOfTwoChoicesRouter implements MachineRouter {
+    private final Random random = new Random();
+
+    @Override
+    public Machine route(Machine[] pool) {
+        if (pool.length == 1) {
+            return pool[0];
+        }
+        int a = random.nextInt(pool.length);
+        int b = random.nextInt(pool.length - 1);
+        if (b >= a) {
+            b++;
+        }
+        return pool[b].load() < pool[a].load() ? pool[b] : pool[a];
+    }
+
+    @Override
+    public String toString() {
+        return "power-of-two";
+    }
+}
@@ -0,0 +1,22 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.models.Machine;
+
+/**
+ * Machines take items in turn, whatever their capacity or backlog.
+ */
+public class RoundRobinRouter implements MachineRouter {
+    private int next = 0;
+
+    @Override
+    public Machine route(Machine[] pool) {
+        Machine machine = pool[next];
+        next = (next + 1) % pool.length;
+        return machine;
+    }
+
+    @Override
+    public String toString() {
+        return "round-robin";
+    }
+}
@@ -0,0 +1,54 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.exceptions.InvalidSimulationException;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Real time sped up or slowed down by a constant factor: at speed 10 a
+ * 500ms burger takes 50ms on the wall, and timestamps advance ten
+ * simulated nanoseconds per real one. Sleeps park for the scaled time and
+ * re-park after early wake-ups, so even sub-millisecond waits at high
+ * speeds keep their length.
+ */
+public class ScaledClock implements Clock {
+    public static final double MIN_SPEED = 0.01;
+    public static final double MAX_SPEED = 100;
+    public static final ScaledClock REAL_TIME = new ScaledClock(1);
+
+    private final double speed;
+    private final long origin = System.nanoTime();
+
+    public ScaledClock(double speed) {
+        if (!(speed >= MIN_SPEED && speed <= MAX_SPEED)) {
+            throw new InvalidSimulationException("Clock speed must be between " + MIN_SPEED + "x and " + MAX_SPEED + "x", 400);
+        }
+        this.speed = speed;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    @Override
+    public long nanoTime() {
+        long now = System.nanoTime();
+        return speed == 1 ? now : origin + (long) ((now - origin) * speed);
+    }
+
+    @Override
+    public void sleepNanos(long simulatedNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + realNanos(simulatedNanos);
+        for (long left = deadline - System.nanoTime(); left > 0; left = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(this, left);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    @Override
+    public long realNanos(long simulatedNanos) {
+        return speed == 1 ? simulatedNanos : (long) (simulatedNanos / speed);
+    }
+}
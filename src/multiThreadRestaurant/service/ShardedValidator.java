@@ -0,0 +1,93 @@
+package multiThreadRestaurant.service;
+
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Validates a stream that may interleave the events of several franchise
+ * shards. Every shard is a restaurant of its own, so each gets its own
+ * {@link StreamingValidator}, chosen by the shard stamped on the event; a
+ * plain single-restaurant stream is all shard 0 and is checked exactly as
+ * a StreamingValidator would.
+ */
+public class ShardedValidator implements EventSink {
+    private final TreeMap<Integer, StreamingValidator> shards = new TreeMap<>();
+    private final EventRecord scratch = new EventRecord();
+    private String violation = null;
+
+    @Override
+    public void write(List<SimulationEvent> batch) {
+        for (SimulationEvent event : batch) {
+            accept(event);
+        }
+    }
+
+    /**
+     * Checks the next event. Returns false once any shard has broken a rule.
+     */
+    public boolean accept(SimulationEvent e) {
+        if (violation != null) {
+            return false;
+        }
+        return accept(scratch.set(e));
+    }
+
+    public boolean accept(EventRecord e) {
+        if (violation != null) {
+            return false;
+        }
+        StreamingValidator shard = shards.computeIfAbsent(e.shard(), s -> new StreamingValidator());
+        if (!shard.accept(e)) {
+            violation = label(e.shard(), shard.getViolation());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Runs the end-of-log checks of every shard. Returns false if this or any
+     * earlier check failed.
+     */
+    public boolean finish() {
+        if (violation != null) {
+            return false;
+        }
+        if (shards.isEmpty()) {
+            shards.put(0, new StreamingValidator());
+        }
+        for (var shard : shards.entrySet()) {
+            if (!shard.getValue().finish()) {
+                violation = label(shard.getKey(), shard.getValue().getViolation());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String label(int shard, String violation) {
+        return shard == 0 ? violation : "Restaurant #" + shard + ": " + violation;
+    }
+
+    public boolean isValid() {
+        return violation == null;
+    }
+
+    /**
+     * The first broken rule with the event that broke it, or null.
+     */
+    public String getViolation() {
+        return violation;
+    }
+
+    public long eventsChecked() {
+        long total = 0;
+        for (StreamingValidator shard : shards.values()) {
+            total += shard.eventsChecked();
+        }
+        return total;
+    }
+
+    public int shards() {
+        return shards.size();
+    }
+}
@@ -0,0 +1,34 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.models.Food;
+
+import java.util.List;
+
+/**
+ * The waiting order with the least total machine time goes first, which
+ * minimizes mean waiting time at the risk of starving large orders while
+ * small ones keep arriving. Ties go to the older order.
+ */
+public class ShortestCookTimeFirst implements OrderSchedulingPolicy {
+    private final OrderHeap orders = new OrderHeap();
+
+    @Override
+    public void add(int orderNum, List<Food> items, boolean vip, long placedNanos) {
+        orders.add(orderNum, OrderSchedulingPolicy.totalCookTime(items));
+    }
+
+    @Override
+    public int next() {
+        return orders.poll();
+    }
+
+    @Override
+    public int size() {
+        return orders.size();
+    }
+
+    @Override
+    public String toString() {
+        return "SPT";
+    }
+}
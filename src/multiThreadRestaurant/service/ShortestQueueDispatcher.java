@@ -0,0 +1,31 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.Restaurant;
+import multiThreadRestaurant.models.Customer;
+
+/**
+ * Sends every customer to the restaurant with the fewest customers inside,
+ * seated or waiting for a table. Ties go round the shards in turn, so a
+ * burst of arrivals at idle restaurants still spreads evenly.
+ */
+public class ShortestQueueDispatcher implements CustomerDispatcher {
+    private int next = 0;
+
+    @Override
+    public int route(Customer customer, Restaurant[] shards) {
+        int best = next;
+        for (int k = 1; k < shards.length; k++) {
+            int i = (next + k) % shards.length;
+            if (shards[i].customersPresent() < shards[best].customersPresent()) {
+                best = i;
+            }
+        }
+        next = (best + 1) % shards.length;
+        return best;
+    }
+
+    @Override
+    public String toString() {
+        return "shortest-queue";
+    }
+}
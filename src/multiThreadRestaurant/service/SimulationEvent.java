@@ -4,175 +4,328 @@ import multiThreadRestaurant.models.Cook;
 import multiThreadRestaurant.models.Customer;
 import multiThreadRestaurant.models.Food;
 import multiThreadRestaurant.enumeration.EventType;
+import multiThreadRestaurant.enumeration.FoodType;
 import multiThreadRestaurant.exceptions.IllegalRestaurantStateException;
 import multiThreadRestaurant.models.Machine;
 
+import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * One thing that happened in the restaurant. An order's contents are kept
+ * as item counts per food type, packed the {@link EventRecord} way, not as
+ * a list, so logging an order copies nothing.
+ *
+ * The events {@link EventLog} hands its sinks are the log's own reusable
+ * ring slots, overwritten once the sinks are done with them; {@link #copy}
+ * any event you want to keep. Text is only made when a sink asks for it.
+ */
 public class SimulationEvent {
 
-    public final EventType event;
-    public final Cook cook;
-    public final Customer customer;
-    public final Machine machine;
-    public final Food food;
-    public final List<Food> orderFood;
-    public final int orderNumber;
-    public final int[] simParams;
+    public EventType event;
+    public Cook cook;
+    public Customer customer;
+    public Machine machine;
+    public Food food;
+    public int orderCounts; // items of the order per Food.id, see EventRecord.count
+    public int orderNumber;
+    public int[] simParams;
+    private long sequence = -1; // position in the global event order, stamped by EventLog
+    private long timestamp = -1; // nanoseconds on the run's clock when published, stamped by EventLog
+    private int shard = 0; // restaurant of a franchise the event happened in, stamped by EventLog
 
     public SimulationEvent(EventType event, Cook cook, Customer customer, Machine machine, Food food, List<Food> orderFood, int orderNumber, int[] simParams) {
+        this(event, cook, customer, machine, food, orderFood == null ? 0 : EventRecord.pack(orderFood), orderNumber, simParams);
+    }
+
+    public SimulationEvent(EventType event, Cook cook, Customer customer, Machine machine, Food food, int orderCounts, int orderNumber, int[] simParams) {
         this.event = event;
         this.cook = cook;
         this.customer = customer;
         this.machine = machine;
         this.food = food;
-        this.orderFood = orderFood;
+        this.orderCounts = orderCounts;
         this.orderNumber = orderNumber;
         this.simParams = simParams;
     }
 
+    /**
+     * An empty ring slot.
+     */
+    SimulationEvent() {
+    }
+
+    /**
+     * An independent copy, stamps included.
+     */
+    public SimulationEvent copy() {
+        SimulationEvent copy = new SimulationEvent();
+        copy.copyFrom(this);
+        copy.stamp(sequence, timestamp, shard);
+        return copy;
+    }
+
+    /**
+     * Overwrites this slot with what happened in {@code e}; EventLog stamps it
+     * afterwards.
+     */
+    void copyFrom(SimulationEvent e) {
+        this.event = e.event;
+        this.cook = e.cook;
+        this.customer = e.customer;
+        this.machine = e.machine;
+        this.food = e.food;
+        this.orderCounts = e.orderCounts;
+        this.orderNumber = e.orderNumber;
+        this.simParams = e.simParams;
+    }
+
+    /**
+     * Drops the slot's references once the sinks are done with it, so the
+     * long-lived ring doesn't keep short-lived customers from being
+     * collected young.
+     */
+    void clear() {
+        this.cook = null;
+        this.customer = null;
+        this.machine = null;
+        this.food = null;
+        this.simParams = null;
+    }
+
+    /**
+     * How many items of {@code food} the order of this event holds.
+     */
+    public int count(Food food) {
+        return EventRecord.count(orderCounts, food.id);
+    }
+
+    /**
+     * The items of the order of this event, grouped by food type rather than
+     * in the order they were placed; null if the event carries no order.
+     */
+    public List<Food> orderFood() {
+        if (orderCounts == 0) {
+            return null;
+        }
+        List<Food> items = new ArrayList<>();
+        for (Food food : FoodType.all) {
+            for (int i = count(food); i > 0; i--) {
+                items.add(food);
+            }
+        }
+        return items;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * The franchise shard the event belongs to; 0 for a restaurant on its own.
+     */
+    public int getShard() {
+        return shard;
+    }
+
+    void stamp(long sequence, long timestamp, int shard) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.shard = shard;
+    }
+
     /* General events */
     public static SimulationEvent startSimulation(int numCustomers, int numCooks, int numTables, int capacity) {
-        int[] params = new int[4];
+        return startSimulation(numCustomers, numCooks, numTables, capacity, 1, false);
+    }
+
+    /**
+     * Also announces how the kitchen is set up: the machines per food type
+     * of capacity {@code capacity}, unless a pool is configured for the
+     * food, and whether cooks steal each other's finished items.
+     */
+    public static SimulationEvent startSimulation(int numCustomers, int numCooks, int numTables, int capacity,
+                                                  int machinesPerFood, boolean workStealing) {
+        int[] params = new int[6];
         params[0] = numCustomers;
         params[1] = numCooks;
         params[2] = numTables;
         params[3] = capacity;
-        return new SimulationEvent(EventType.SimulationStarting, null, null, null, null, null, 0, params);
+        params[4] = machinesPerFood;
+        params[5] = workStealing ? 1 : 0;
+        return new SimulationEvent(EventType.SimulationStarting, null, null, null, null, 0, 0, params);
     }
 
     public static SimulationEvent endSimulation() {
-        return new SimulationEvent(EventType.SimulationEnded, null, null, null, null, null, 0, null);
+        return new SimulationEvent(EventType.SimulationEnded, null, null, null, null, 0, 0, null);
     }
 
     /* Customer events */
     public static SimulationEvent customerStarting(Customer customer) {
-        return new SimulationEvent(EventType.CustomerStarting, null, customer, null, null, null, 0, null);
+        return new SimulationEvent(EventType.CustomerStarting, null, customer, null, null, 0, 0, null);
     }
 
     public static SimulationEvent customerEnteredRestaurant(Customer customer) {
-        return new SimulationEvent(EventType.CustomerEnteredRestaurant, null, customer, null, null, null, 0, null);
+        return new SimulationEvent(EventType.CustomerEnteredRestaurant, null, customer, null, null, 0, 0, null);
     }
 
     public static SimulationEvent customerPlacedOrder(Customer customer, List<Food> order, int orderNumber) {
-        return new SimulationEvent(EventType.CustomerPlacedOrder, null, customer, null, null, order, orderNumber, null);
+        return new SimulationEvent(EventType.CustomerPlacedOrder, null, customer, null, null, EventRecord.pack(order), orderNumber, null);
     }
 
+    /**
+     * A null order means the customer got nothing.
+     */
     public static SimulationEvent customerReceivedOrder(Customer customer, List<Food> order, int orderNumber) {
-        return new SimulationEvent(EventType.CustomerReceivedOrder, null, customer, null, null, order, orderNumber, null);
+        return new SimulationEvent(EventType.CustomerReceivedOrder, null, customer, null, null, EventRecord.pack(order), orderNumber, null);
     }
 
     public static SimulationEvent customerLeavingRestaurant(Customer customer) {
-        return new SimulationEvent(EventType.CustomerLeavingRestaurant, null, customer, null, null, null, 0, null);
+        return new SimulationEvent(EventType.CustomerLeavingRestaurant, null, customer, null, null, 0, 0, null);
     }
 
     /* Cook events */
     public static SimulationEvent cookStarting(Cook cook) {
-        return new SimulationEvent(EventType.CookStarting, cook, null, null, null, null, 0, null);
+        return new SimulationEvent(EventType.CookStarting, cook, null, null, null, 0, 0, null);
     }
 
     public static SimulationEvent cookReceivedOrder(Cook cook, List<Food> order, int orderNumber) {
-        return new SimulationEvent(EventType.CookReceivedOrder, cook, null, null, null, order, orderNumber, null);
+        return new SimulationEvent(EventType.CookReceivedOrder, cook, null, null, null, EventRecord.pack(order), orderNumber, null);
     }
 
     public static SimulationEvent cookStartedFood(Cook cook, Food food, int orderNumber) {
-        return new SimulationEvent(EventType.CookStartedFood, cook, null, null, food, null, orderNumber, null);
+        return new SimulationEvent(EventType.CookStartedFood, cook, null, null, food, 0, orderNumber, null);
     }
 
     public static SimulationEvent cookFinishedFood(Cook cook, Food food, int orderNumber) {
-        return new SimulationEvent(EventType.CookFinishedFood, cook, null, null, food, null, orderNumber, null);
+        return new SimulationEvent(EventType.CookFinishedFood, cook, null, null, food, 0, orderNumber, null);
     }
 
     public static SimulationEvent cookCompletedOrder(Cook cook, int orderNumber) {
-        return new SimulationEvent(EventType.CookCompletedOrder, cook, null, null, null, null, orderNumber, null);
+        return new SimulationEvent(EventType.CookCompletedOrder, cook, null, null, null, 0, orderNumber, null);
     }
 
     public static SimulationEvent cookEnding(Cook cook) {
-        return new SimulationEvent(EventType.CookEnding, cook, null, null, null, null, 0, null);
+        return new SimulationEvent(EventType.CookEnding, cook, null, null, null, 0, 0, null);
     }
 
     /* Machine events */
     public static SimulationEvent machineStarting(Machine machine, Food food, int capacity) {
         int[] params = new int[1];
         params[0] = capacity;
-        return new SimulationEvent(EventType.MachineStarting, null, null, machine, food, null, 0, params);
+        return new SimulationEvent(EventType.MachineStarting, null, null, machine, food, 0, 0, params);
     }
 
     public static SimulationEvent machineCookingFood(Machine machine, Food food) {
-        return new SimulationEvent(EventType.MachineStartingFood, null, null, machine, food, null, 0, null);
+        return new SimulationEvent(EventType.MachineStartingFood, null, null, machine, food, 0, 0, null);
     }
 
     public static SimulationEvent machineDoneFood(Machine machine, Food food) {
-        return new SimulationEvent(EventType.MachineDoneFood, null, null, machine, food, null, 0, null);
+        return new SimulationEvent(EventType.MachineDoneFood, null, null, machine, food, 0, 0, null);
     }
 
     public static SimulationEvent machineEnding(Machine machine) {
-        return new SimulationEvent(EventType.MachineEnding, null, null, machine, null, null, 0, null);
+        return new SimulationEvent(EventType.MachineEnding, null, null, machine, null, 0, 0, null);
+    }
+
+    /**
+     * A machine of a configured pool and the capacity the options gave it,
+     * announced before any of the pool's machines start.
+     */
+    public static SimulationEvent machineConfigured(Machine machine, Food food, int capacity) {
+        int[] params = new int[1];
+        params[0] = capacity;
+        return new SimulationEvent(EventType.MachineConfigured, null, null, machine, food, 0, 0, params);
     }
 
     public String toString() {
+        return appendTo(new StringBuilder(96)).toString();
+    }
+
+    /**
+     * Renders the event onto {@code text} with the same wording as
+     * {@link #toString}, building no strings of its own: actor, machine and
+     * food names are made once and cached by their objects.
+     */
+    public StringBuilder appendTo(StringBuilder text) {
         switch (event) {
             /* General events */
             case SimulationStarting:
-                int numCustomers = simParams[0];
-                int numCooks = simParams[1];
-                int numTables = simParams[2];
-                int capacity = simParams[3];
-                return "Starting simulation: " + numCustomers + " customers; " +
-                        numCooks + " cooks; " + numTables + " tables; " +
-                        "machine capacity " + capacity + ".";
+                text.append("Starting simulation: ");
+                if (simParams[0] < 0) {
+                    text.append("open-ended number of");
+                } else {
+                    text.append(simParams[0]);
+                }
+                text.append(" customers; ").append(simParams[1]).append(" cooks; ")
+                        .append(simParams[2]).append(" tables; machine capacity ").append(simParams[3]);
+                if (simParams.length > 4 && simParams[4] > 1) {
+                    text.append("; ").append(simParams[4]).append(" machines per food type");
+                }
+                if (simParams.length > 5 && simParams[5] != 0) {
+                    text.append("; work stealing");
+                }
+                return text.append('.');
 
             case SimulationEnded:
-                return "Simulation ended.";
+                return text.append("Simulation ended.");
 
             /* Customer events */
             case CustomerStarting:
-                return customer + " going to Restaurant.";
+                return text.append(customer).append(" going to Restaurant.");
 
             case CustomerEnteredRestaurant:
-                return customer + " entered Restaurant.";
+                return text.append(customer).append(" entered Restaurant.");
 
             case CustomerPlacedOrder:
-                return customer + " placing order " + orderNumber + " " + orderFood;
+                return EventRecord.appendItems(text.append(customer).append(" placing order ").append(orderNumber).append(' '), orderCounts);
 
             case CustomerReceivedOrder:
-                return customer + " received order " + orderNumber + " " + orderFood;
+                return EventRecord.appendItems(text.append(customer).append(" received order ").append(orderNumber).append(' '), orderCounts);
 
             case CustomerLeavingRestaurant:
-                return customer + " leaving Restaurant.";
+                return text.append(customer).append(" leaving Restaurant.");
 
             /* Cook Events */
             case CookStarting:
-                return cook + " reporting for work.";
+                return text.append(cook).append(" reporting for work.");
 
             case CookReceivedOrder:
-                return cook + " starting order " + orderNumber + " " + orderFood;
+                return EventRecord.appendItems(text.append(cook).append(" starting order ").append(orderNumber).append(' '), orderCounts);
 
             case CookStartedFood:
-                return cook + " preparing " + food + " for order " + orderNumber;
+                return text.append(cook).append(" preparing ").append(food).append(" for order ").append(orderNumber);
 
             case CookFinishedFood:
-                return cook + " finished " + food + " for order " + orderNumber;
+                return text.append(cook).append(" finished ").append(food).append(" for order ").append(orderNumber);
 
             case CookCompletedOrder:
-                return cook + " completed order " + orderNumber;
+                return text.append(cook).append(" completed order ").append(orderNumber);
 
             case CookEnding:
-                return cook + " going home for the night.";
+                return text.append(cook).append(" going home for the night.");
 
             /* Machine events */
             case MachineStarting:
-                return machine + " starting up for making " +
-                        food + "; " + simParams[0] + ".";
+                return text.append(machine).append(" starting up for making ")
+                        .append(food).append("; ").append(simParams[0]).append('.');
 
             case MachineStartingFood:
-                return machine + " making " + food + ".";
+                return text.append(machine).append(" making ").append(food).append('.');
 
             case MachineDoneFood:
-                return machine + " completed " + food + ".";
+                return text.append(machine).append(" completed ").append(food).append('.');
 
             case MachineEnding:
-                return machine + " shutting down.";
+                return text.append(machine).append(" shutting down.");
+
+            case MachineConfigured:
+                return text.append(machine).append(" configured for making ")
+                        .append(food).append("; ").append(simParams[0]).append('.');
 
             default:
                 throw new IllegalRestaurantStateException("Illegal event. Unable to recognize this event.", 400);
@@ -0,0 +1,434 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.enumeration.EventType;
+import multiThreadRestaurant.enumeration.FoodType;
+import multiThreadRestaurant.exceptions.InvalidSimulationException;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Checks every rule of {@link Validate} in a single pass over the event
+ * stream, in time linear in the number of events. Customers are keyed by
+ * order number, cooks by id, machines by type and pool unit and food by
+ * {@code Food.id}; order bookkeeping lives in bit sets and per-food-type
+ * count vectors instead of lists.
+ *
+ * Events can be fed one at a time, so the validator can also sit on the
+ * live event log as an {@link EventSink}. Every event is checked in its
+ * {@link EventRecord} form, which is also how a binary journal replays
+ * without rebuilding any objects. The first broken rule is kept,
+ * together with the offending event and its position, and everything after
+ * it is ignored.
+ *
+ * Per-customer and per-order state is dropped as soon as the customer leaves,
+ * leaving one bit per order number behind, so memory stays bounded by the
+ * number of customers in the restaurant rather than the length of the run.
+ */
+public class StreamingValidator implements EventSink {
+    private static final int FOOD_TYPES = FoodType.all.length;
+
+    private static class OrderState {
+        final int placed;
+        final int[] finished = new int[FOOD_TYPES];
+        int handler = -1;
+
+        OrderState(int placed) {
+            this.placed = placed;
+        }
+    }
+
+    private static class CookState {
+        EventType state;
+        int currentOrder = -1;
+        int received; // packed items of the current order
+        final int[] finished = new int[FOOD_TYPES];
+    }
+
+    private static class MachineState {
+        EventType state;
+        int capacity;
+        int load;
+    }
+
+    private long position = 0;
+    private String violation = null;
+    private boolean started = false;
+    private boolean ended = false;
+
+    private int numCustomers;
+    private int numCooks;
+    private int numTables;
+    private int capacity;
+    private boolean workStealing;
+    private int machinesPerFood; // of the run's capacity, for every food without a configured pool
+
+    private int customersStarted = 0;
+    private int customersHandled = 0;
+    private int cooksStarted = 0;
+    private int tableLoad = 0;
+    private final int[] cookFoodLoad = new int[FOOD_TYPES];
+    private final int[] foodCapacity = new int[FOOD_TYPES]; // items all started machines of a food hold
+    private final int[] foodMachines = new int[FOOD_TYPES]; // machines of a food started
+    private final int[] poolSize = new int[FOOD_TYPES]; // machines of a food's configured pool, 0 if none
+
+    private final BitSet customersSeen = new BitSet();
+    private final HashMap<Integer, EventType> customerStates = new HashMap<>();
+    private final HashMap<Integer, Integer> customerOrders = new HashMap<>();
+    private final HashMap<Integer, CookState> cooks = new HashMap<>();
+    private final HashMap<Integer, MachineState> machines = new HashMap<>(); // keyed by machine type and unit
+    private final HashMap<Integer, Integer> configuredCapacity = new HashMap<>(); // pooled machines, same keys
+    private final HashMap<Integer, OrderState> orders = new HashMap<>();
+    private final BitSet placedOrders = new BitSet();
+    private final BitSet completedOrders = new BitSet();
+    private int completedOrderCount = 0;
+    private final EventRecord scratch = new EventRecord();
+
+    private static void check(boolean check, String message) {
+        if (!check) {
+            throw new InvalidSimulationException(message, 400);
+        }
+    }
+
+    private static void fail(String message) {
+        throw new InvalidSimulationException(message, 400);
+    }
+
+    private static String stateErrorMsg(String name, EventType oldEvent, EventType newEvent) {
+        return name + " tried to switch from " + oldEvent + " to " + newEvent;
+    }
+
+    @Override
+    public void write(List<SimulationEvent> batch) {
+        for (SimulationEvent event : batch) {
+            accept(event);
+        }
+    }
+
+    /**
+     * Checks the next event. Returns false once any rule has been broken.
+     */
+    public boolean accept(SimulationEvent e) {
+        if (violation != null) {
+            return false;
+        }
+        return accept(scratch.set(e));
+    }
+
+    /**
+     * Checks the next event in its binary form, e.g. straight out of an
+     * {@link EventJournal}.
+     */
+    public boolean accept(EventRecord e) {
+        if (violation != null) {
+            return false;
+        }
+        try {
+            process(e);
+            position++;
+            return true;
+        } catch (InvalidSimulationException ex) {
+            violation = "SIMULATION INVALID : " + ex.getMessage() + "\n  at event #" + position + ": " + e;
+            return false;
+        }
+    }
+
+    /**
+     * Runs the end-of-log checks. Returns false if this or any earlier
+     * check failed.
+     */
+    public boolean finish() {
+        if (violation != null) {
+            return false;
+        }
+        try {
+            check(started, "Simulation didn't start with initiation event");
+            check(ended, "Simulation didn't end with termination event");
+            if (numCustomers >= 0) {
+                check(numCustomers == customersStarted, "More eaters have shown up.");
+                check(customersSeen.cardinality() == numCustomers, "Simulation expected " + numCustomers + " customers, but log records " + customersSeen.cardinality());
+            }
+            check(numCooks == cooksStarted, "More or less cooks reported for work.");
+            check(cooks.size() == numCooks, "Simulation expected " + numCooks + " cooks, but log records " + cooks.size());
+            for (int food = 0; food < FOOD_TYPES; food++) {
+                int expected = poolSize[food] > 0 ? poolSize[food] : machinesPerFood;
+                check(foodMachines[food] == expected, "Simulation expected " + expected + " machines for "
+                        + FoodType.all[food] + ", but log records " + foodMachines[food]);
+            }
+            check(customerStates.isEmpty(), "At end of log, not all customers have left Restaurant");
+            for (CookState cook : cooks.values())
+                check(cook.state == EventType.CookEnding, "At end of log, not all cooks have ended");
+            for (MachineState machine : machines.values())
+                check(machine.state == EventType.MachineEnding, "At end of log, not all machines have shut down");
+            check(completedOrderCount == expectedCustomers(), "At end of log, number of completed orders does not match up with number of customers");
+            return true;
+        } catch (InvalidSimulationException ex) {
+            violation = "SIMULATION INVALID : " + ex.getMessage() + "\n  after " + position + " events";
+            return false;
+        }
+    }
+
+    public boolean isValid() {
+        return violation == null;
+    }
+
+    /**
+     * The first broken rule with the event that broke it, or null.
+     */
+    public String getViolation() {
+        return violation;
+    }
+
+    public long eventsChecked() {
+        return position;
+    }
+
+    private void process(EventRecord e) {
+        if (!started) {
+            if (e.type() != EventType.SimulationStarting) fail("Simulation didn't start with initiation event \n " + e.type());
+        }
+        check(!ended, "Event logged after the simulation ended");
+
+        switch (e.type()) {
+            case SimulationStarting -> {
+                check(!started, "Simulation started twice");
+                started = true;
+                numCustomers = e.simParam(0);
+                numCooks = e.simParam(1);
+                numTables = e.simParam(2);
+                capacity = e.simParam(3);
+                machinesPerFood = e.simParam(4);
+                workStealing = e.simParam(5) != 0;
+                Arrays.fill(foodCapacity, capacity);
+            }
+            case SimulationEnded -> ended = true;
+
+            case CustomerStarting -> {
+                customersStarted++;
+                updateCustomerState(e);
+            }
+            case CustomerEnteredRestaurant -> {
+                check(++tableLoad <= numTables, "More customers in Restaurant than tables.");
+                updateCustomerState(e);
+            }
+            case CustomerPlacedOrder -> {
+                check(!placedOrders.get(e.orderNumber()), "Order number has already been placed");
+                placedOrders.set(e.orderNumber());
+                orders.put(e.orderNumber(), new OrderState(e.packedCounts()));
+                customerOrders.put(e.actorId(), e.packedCounts());
+                updateCustomerState(e);
+            }
+            case CustomerReceivedOrder -> {
+                if (!completedOrders.get(e.orderNumber())) fail("Customer received an order before cook completes it. \n" +
+                        e.customerName() + " " + e.orderNumber());
+                Integer placed = customerOrders.get(e.actorId());
+                if (placed == null || placed != e.packedCounts())
+                    fail("Orginal and received orders do not match. \nReceived: " + e);
+                updateCustomerState(e);
+            }
+            case CustomerLeavingRestaurant -> {
+                check(--tableLoad >= 0, "Number of customers in Restaurant is negative");
+                updateCustomerState(e);
+                customersHandled++;
+                forgetCustomer(e.actorId());
+            }
+
+            case CookStarting -> {
+                if (cooks.containsKey(e.actorId())) fail(stateErrorMsg(e.cookName(), EventType.CookStarting, e.type()));
+                CookState cook = new CookState();
+                cook.state = EventType.CookStarting;
+                cooks.put(e.actorId(), cook);
+                cooksStarted++;
+            }
+            case CookReceivedOrder -> {
+                OrderState order = orders.get(e.orderNumber());
+                if (!placedOrders.get(e.orderNumber()) || order == null) fail(e.cookName() + " received order that was never placed");
+                if (order.handler != -1) fail(e.cookName() + " received order that was already given to cook " + order.handler);
+                check(e.packedCounts() == order.placed, "Mismatch between cook's received order and customer's placed order");
+                order.handler = e.actorId();
+                CookState cook = updateCookState(e);
+                cook.currentOrder = e.orderNumber();
+                cook.received = e.packedCounts();
+                Arrays.fill(cook.finished, 0);
+            }
+            case CookStartedFood -> {
+                int food = e.foodId();
+                if (cookFoodLoad[food] >= foodCapacity[food]) fail("Machine holding too much of " + FoodType.all[food] + "\n" + e + "\n" + cookFoodLoad[food]);
+                cookFoodLoad[food]++;
+                cookOrder(e, "starting food for");
+                if (completedOrders.get(e.orderNumber())) fail(e.cookName() + " started food for an order that was already complete");
+                updateCookState(e);
+            }
+            case CookFinishedFood -> {
+                int food = e.foodId();
+                if (cookFoodLoad[food] <= 0) fail("Machine holding negative of " + FoodType.all[food]);
+                cookFoodLoad[food]--;
+                OrderState order = workStealing ? receivedOrder(e, "finished food for") : cookOrder(e, "finished food for");
+                if (completedOrders.get(e.orderNumber())) fail(e.cookName() + " finished food for an order that was already complete");
+                if (++order.finished[food] > EventRecord.count(order.placed, food)) fail(e.cookName() + " finished more " + FoodType.all[food] + " than order " + e.orderNumber() + " has");
+                updateCookState(e).finished[food]++;
+            }
+            case CookCompletedOrder -> {
+                OrderState order = workStealing ? receivedOrder(e, "completed") : cookOrder(e, "completed");
+                if (completedOrders.get(e.orderNumber())) fail(e.cookName() + " completed order that was already complete");
+                check(EventRecord.sameCounts(order.finished, order.placed), "Mismatch between cook's completed order and customer's placed order");
+                CookState cook = updateCookState(e);
+                if (!workStealing) {
+                    check(e.orderNumber() == cook.currentOrder, "Current cook orders do not match");
+                    if (!EventRecord.sameCounts(cook.finished, cook.received)) fail("Finished cooking list does not match original, ordernum = " + e.orderNumber());
+                    cook.currentOrder = -1;
+                    cook.received = 0;
+                }
+                completedOrders.set(e.orderNumber());
+                completedOrderCount++;
+            }
+            case CookEnding -> {
+                check(customersHandled == expectedCustomers(), "Cook left before all the customers were handled");
+                updateCookState(e);
+            }
+
+            case MachineConfigured -> {
+                int food = e.foodId();
+                check(foodMachines[food] == 0, e.machineName() + " configured after machines for " + FoodType.all[food] + " started");
+                check(e.simParam(0) > 0, e.machineName() + " configured with no capacity");
+                if (configuredCapacity.put(machineKey(e), e.simParam(0)) != null) fail(e.machineName() + " configured twice");
+                poolSize[food]++;
+            }
+            case MachineStarting -> {
+                int food = e.foodId();
+                int expected = configuredCapacity(e);
+                if (e.simParam(0) != expected) fail(e.machineName() + " announced capacity " + e.simParam(0) + ", but was configured with " + expected);
+                if (foodMachines[food]++ == 0) {
+                    foodCapacity[food] = 0;
+                }
+                foodCapacity[food] += expected;
+                updateMachineState(e).capacity = expected;
+            }
+            case MachineEnding -> updateMachineState(e);
+            case MachineStartingFood -> {
+                MachineState machine = updateMachineState(e);
+                if (++machine.load > machine.capacity) fail(e.machineName() + " capacity is greater than machine");
+            }
+            case MachineDoneFood -> updateMachineState(e).load--;
+
+            default -> throw new InvalidSimulationException("VALIDATION CODE DOES NOT HANDLE EVENT " + e.type(), 400);
+        }
+    }
+
+    /**
+     * The customer count SimulationStarting announced, or for an open-ended
+     * run (announced as -1, e.g. a franchise shard whose customers a
+     * dispatcher sends as they arrive) every customer who showed up.
+     */
+    private int expectedCustomers() {
+        return numCustomers >= 0 ? numCustomers : customersStarted;
+    }
+
+    /**
+     * The capacity a starting machine was set up with: what its pool's
+     * MachineConfigured announced, or for a food without a pool the run's
+     * capacity, on unit 0 alone or units 1 to machines-per-food.
+     */
+    private int configuredCapacity(EventRecord e) {
+        if (poolSize[e.foodId()] > 0) {
+            Integer configured = configuredCapacity.get(machineKey(e));
+            if (configured == null) fail(e.machineName() + " is not part of the configured pool for " + FoodType.all[e.foodId()]);
+            return configured;
+        }
+        int unit = e.machineUnit();
+        if (machinesPerFood == 1 ? unit != 0 : unit < 1 || unit > machinesPerFood)
+            fail(e.machineName() + " is not one of the " + machinesPerFood + " machines for " + FoodType.all[e.foodId()]);
+        return capacity;
+    }
+
+    private static int machineKey(EventRecord e) {
+        return e.machineType() == null ? -1 : e.machineType().ordinal() << 8 | e.machineUnit();
+    }
+
+    private OrderState cookOrder(EventRecord e, String action) {
+        OrderState order = orders.get(e.orderNumber());
+        if (order == null || order.handler != e.actorId())
+            fail(e.cookName() + " " + action + " order that was started by cook " + (order == null ? null : order.handler));
+        return order;
+    }
+
+    /**
+     * In a work-stealing kitchen items of an order may be finished, and the
+     * order completed, by any cook on shift once some cook has received it:
+     * whoever is idle takes finished items off the machines.
+     */
+    private OrderState receivedOrder(EventRecord e, String action) {
+        OrderState order = orders.get(e.orderNumber());
+        if (order == null || order.handler == -1)
+            fail(e.cookName() + " " + action + " order that no cook has received");
+        return order;
+    }
+
+    private void updateCustomerState(EventRecord e) {
+        int key = e.actorId();
+        EventType oldEvent = customerStates.get(key);
+        EventType newEvent = e.type();
+        boolean legal = switch (newEvent) {
+            case CustomerStarting -> oldEvent == null && !customersSeen.get(key);
+            case CustomerEnteredRestaurant -> oldEvent == EventType.CustomerStarting;
+            case CustomerPlacedOrder -> oldEvent == EventType.CustomerEnteredRestaurant;
+            case CustomerReceivedOrder -> oldEvent == EventType.CustomerPlacedOrder;
+            case CustomerLeavingRestaurant -> oldEvent == EventType.CustomerReceivedOrder;
+            default -> false;
+        };
+        if (!legal) fail(stateErrorMsg(e.customerName(), oldEvent, newEvent));
+        customerStates.put(key, newEvent);
+        customersSeen.set(key);
+    }
+
+    /**
+     * Drops everything kept about a customer who has left. Their order is
+     * complete by then; the placed/completed bits are all that is still
+     * needed to reject a late or repeated event for it.
+     */
+    private void forgetCustomer(int orderNum) {
+        customerStates.remove(orderNum);
+        customerOrders.remove(orderNum);
+        orders.remove(orderNum);
+    }
+
+    private CookState updateCookState(EventRecord e) {
+        CookState cook = cooks.get(e.actorId());
+        EventType oldEvent = cook == null ? null : cook.state;
+        EventType newEvent = e.type();
+        boolean legal = switch (newEvent) {
+            case CookReceivedOrder, CookStartedFood, CookCompletedOrder -> oldEvent != null && oldEvent != EventType.CookEnding;
+            case CookFinishedFood -> oldEvent != null && oldEvent != EventType.CookEnding
+                    && (workStealing || oldEvent != EventType.CookStarting);
+            case CookEnding -> workStealing ? oldEvent != null && oldEvent != EventType.CookEnding
+                    : oldEvent == EventType.CookStarting || oldEvent == EventType.CookCompletedOrder;
+            default -> false;
+        };
+        if (!legal) fail(stateErrorMsg(e.cookName(), oldEvent, newEvent));
+        cook.state = newEvent;
+        return cook;
+    }
+
+    private MachineState updateMachineState(EventRecord e) {
+        int key = machineKey(e);
+        MachineState machine = machines.get(key);
+        EventType oldEvent = machine == null ? null : machine.state;
+        EventType newEvent = e.type();
+        boolean legal = switch (newEvent) {
+            case MachineStarting -> oldEvent == null;
+            case MachineStartingFood -> oldEvent != null && oldEvent != EventType.MachineEnding;
+            case MachineDoneFood -> oldEvent != null && oldEvent != EventType.MachineEnding && oldEvent != EventType.MachineStarting;
+            case MachineEnding -> oldEvent == EventType.MachineStarting || oldEvent == EventType.MachineDoneFood;
+            default -> false;
+        };
+        if (!legal) fail(stateErrorMsg(e.machineName(), oldEvent, newEvent));
+        if (machine == null) {
+            machine = new MachineState();
+            machines.put(key, machine);
+        }
+        machine.state = newEvent;
+        return machine;
+    }
+}
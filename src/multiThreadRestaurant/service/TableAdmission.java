@@ -0,0 +1,229 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.enumeration.AdmissionPolicy;
+import multiThreadRestaurant.metrics.Histogram;
+import multiThreadRestaurant.metrics.LockStats;
+import multiThreadRestaurant.models.Customer;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The restaurant's front door: hands out tables to arriving customers and
+ * parks the ones that have to wait.
+ *
+ * In FIFO and PRIORITY mode a freed table is handed directly to the next
+ * waiter, so nobody can barge in ahead of the queue. In UNFAIR mode a freed
+ * table is up for grabs and the woken waiter has to compete with newcomers.
+ */
+public class TableAdmission {
+    private static final Comparator<Waiter> BY_PRIORITY = Comparator
+            .comparing((Waiter w) -> !w.customer.isVip())
+            .thenComparing(w -> -w.customer.getPartySize())
+            .thenComparingLong(w -> w.ticket);
+
+    private final int tables;
+    private final AdmissionPolicy policy;
+    private final ReentrantLock frontDoor = new ReentrantLock();
+    private final LockStats lockStats = new LockStats();
+    private final Queue<Waiter> waiting;
+    private int seated = 0;
+    private long nextTicket = 0;
+    private int peakQueueLength = 0;
+    private final Histogram waitTimes = new Histogram("table wait", "us");
+    private final Histogram queueLengths = new Histogram("queue length on arrival", "");
+    private final Clock clock;
+
+    public TableAdmission(int tables, AdmissionPolicy policy) {
+        this(tables, policy, ScaledClock.REAL_TIME);
+    }
+
+    /**
+     * A front door that measures waits on {@code clock}.
+     */
+    public TableAdmission(int tables, AdmissionPolicy policy, Clock clock) {
+        this.tables = tables;
+        this.policy = policy;
+        this.clock = clock;
+        this.waiting = policy == AdmissionPolicy.PRIORITY ? new PriorityQueue<>(BY_PRIORITY) : new ArrayDeque<>();
+    }
+
+    private static class Waiter {
+        final Customer customer;
+        final Thread thread; // null for a waiter called back instead of parked
+        final Runnable onSeated;
+        final long ticket;
+        final long since;
+        volatile boolean admitted = false;
+
+        Waiter(Customer customer, Thread thread, Runnable onSeated, long ticket, long since) {
+            this.customer = customer;
+            this.thread = thread;
+            this.onSeated = onSeated;
+            this.ticket = ticket;
+            this.since = since;
+        }
+    }
+
+    /**
+     * Parks the calling customer until a table is theirs.
+     */
+    public void admit(Customer customer) throws InterruptedException {
+        long start = clock.nanoTime();
+        Waiter waiter;
+        lockStats.lock(frontDoor);
+        try {
+            queueLengths.record(waiting.size());
+            if (seated < tables && (policy == AdmissionPolicy.UNFAIR || waiting.isEmpty())) {
+                seated++;
+                waitTimes.record(0);
+                return;
+            }
+            waiter = new Waiter(customer, Thread.currentThread(), null, nextTicket++, start);
+            enqueue(waiter);
+        } finally {
+            frontDoor.unlock();
+        }
+
+        while (!waiter.admitted) {
+            LockSupport.park(this);
+            if (Thread.interrupted()) {
+                lockStats.lock(frontDoor);
+                try {
+                    if (!waiter.admitted) {
+                        waiting.remove(waiter);
+                        throw new InterruptedException();
+                    }
+                } finally {
+                    frontDoor.unlock();
+                }
+                Thread.currentThread().interrupt();
+            }
+            if (policy == AdmissionPolicy.UNFAIR && waiter.admitted) {
+                lockStats.lock(frontDoor);
+                try {
+                    if (seated < tables) {
+                        seated++;
+                    } else {
+                        waiter.admitted = false;
+                        enqueue(waiter);
+                    }
+                } finally {
+                    frontDoor.unlock();
+                }
+            }
+        }
+        waitTimes.record((clock.nanoTime() - start) / 1000);
+    }
+
+    /**
+     * Seats the customer and runs {@code onSeated} once a table is theirs,
+     * right away or from a later {@link #release}, without blocking the
+     * caller. For runs where customers have no threads of their own; the
+     * table is always handed over directly, whatever the policy.
+     */
+    public void admit(Customer customer, Runnable onSeated) {
+        lockStats.lock(frontDoor);
+        try {
+            queueLengths.record(waiting.size());
+            if (seated >= tables || (policy != AdmissionPolicy.UNFAIR && !waiting.isEmpty())) {
+                enqueue(new Waiter(customer, null, onSeated, nextTicket++, clock.nanoTime()));
+                return;
+            }
+            seated++;
+            waitTimes.record(0);
+        } finally {
+            frontDoor.unlock();
+        }
+        onSeated.run();
+    }
+
+    /**
+     * Frees the caller's table. Under FIFO/PRIORITY the table goes straight
+     * to the next waiter; under UNFAIR the next waiter is only woken up.
+     */
+    public void release() {
+        Waiter next;
+        lockStats.lock(frontDoor);
+        try {
+            next = waiting.poll();
+            if (next == null || (policy == AdmissionPolicy.UNFAIR && next.thread != null)) {
+                seated--;
+            }
+            if (next != null) {
+                next.admitted = true;
+                if (next.thread == null) {
+                    waitTimes.record((clock.nanoTime() - next.since) / 1000);
+                }
+            }
+        } finally {
+            frontDoor.unlock();
+        }
+        if (next != null && next.thread != null) {
+            LockSupport.unpark(next.thread);
+        } else if (next != null) {
+            next.onSeated.run();
+        }
+    }
+
+    private void enqueue(Waiter waiter) {
+        waiting.add(waiter);
+        peakQueueLength = Math.max(peakQueueLength, waiting.size());
+    }
+
+    public int queueLength() {
+        lockStats.lock(frontDoor);
+        try {
+            return waiting.size();
+        } finally {
+            frontDoor.unlock();
+        }
+    }
+
+    public int seatedCustomers() {
+        lockStats.lock(frontDoor);
+        try {
+            return seated;
+        } finally {
+            frontDoor.unlock();
+        }
+    }
+
+    public int peakQueueLength() {
+        lockStats.lock(frontDoor);
+        try {
+            return peakQueueLength;
+        } finally {
+            frontDoor.unlock();
+        }
+    }
+
+    public int getTables() {
+        return tables;
+    }
+
+    public AdmissionPolicy getPolicy() {
+        return policy;
+    }
+
+    public LockStats lockStats() {
+        return lockStats;
+    }
+
+    public Histogram waitTimes() {
+        return waitTimes;
+    }
+
+    public Histogram queueLengths() {
+        return queueLengths;
+    }
+
+    public String report() {
+        return "Table admission (" + policy + ", " + tables + " tables): peak queue " + peakQueueLength() + "\n  " +
+                waitTimes + "\n  " + queueLengths;
+    }
+}
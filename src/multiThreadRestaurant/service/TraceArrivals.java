@@ -0,0 +1,78 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.exceptions.IllegalRestaurantStateException;
+import multiThreadRestaurant.exceptions.InvalidSimulationException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Replays arrival times recorded in a CSV file, one customer per line with
+ * the arrival in milliseconds since opening in the first column. Further
+ * columns, blank lines, lines starting with '#' and a header line are
+ * ignored. The file is read a line at a time as the run asks for arrivals,
+ * and closed at the end of the trace or when the run closes the process.
+ */
+public class TraceArrivals implements ArrivalProcess {
+    private final Path path;
+    private BufferedReader reader;
+    private long lineNumber = 0;
+    private long last = 0;
+
+    public TraceArrivals(Path path) {
+        this.path = path;
+        try {
+            this.reader = Files.newBufferedReader(path);
+        } catch (IOException e) {
+            throw new IllegalRestaurantStateException("Unable to open arrival trace " + path + ": " + e.getMessage(), 500);
+        }
+    }
+
+    @Override
+    public long nextArrivalNanos() {
+        try {
+            String line;
+            while (reader != null && (line = reader.readLine()) != null) {
+                lineNumber++;
+                String field = line.split(",", 2)[0].trim();
+                if (field.isEmpty() || field.startsWith("#")) {
+                    continue;
+                }
+                double millis;
+                try {
+                    millis = Double.parseDouble(field);
+                } catch (NumberFormatException e) {
+                    if (lineNumber == 1) {
+                        continue; // header
+                    }
+                    throw new InvalidSimulationException("Arrival trace " + path + " line " + lineNumber + ": not a time: " + field, 400);
+                }
+                long at = (long) (millis * 1_000_000);
+                if (at < last) {
+                    throw new InvalidSimulationException("Arrival trace " + path + " line " + lineNumber + ": arrivals must be in time order", 400);
+                }
+                last = at;
+                return at;
+            }
+            close();
+            return END;
+        } catch (IOException e) {
+            throw new IllegalRestaurantStateException("Unable to read arrival trace " + path + ": " + e.getMessage(), 500);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new IllegalRestaurantStateException("Unable to close arrival trace " + path + ": " + e.getMessage(), 500);
+            } finally {
+                reader = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package multiThreadRestaurant.service;
+
+import java.util.PriorityQueue;
+
+/**
+ * Simulated time for the discrete-event engine: a priority queue of tasks
+ * keyed by the virtual instant they are due. Running a task moves the clock
+ * to its instant, so waiting costs nothing however long it is. Tasks due at
+ * the same instant run in the order they were scheduled.
+ *
+ * Only ever touched by the one thread driving the run; not thread safe.
+ * Nothing may block on it: {@link #sleepNanos} throws.
+ */
+public class VirtualClock implements Clock {
+    private final PriorityQueue<Scheduled> queue = new PriorityQueue<>();
+    private long now = 0;
+    private long scheduled = 0;
+
+    private static class Scheduled implements Comparable<Scheduled> {
+        final long due;
+        final long seq;
+        final Runnable task;
+
+        Scheduled(long due, long seq, Runnable task) {
+            this.due = due;
+            this.seq = seq;
+            this.task = task;
+        }
+
+        @Override
+        public int compareTo(Scheduled o) {
+            return due != o.due ? Long.compare(due, o.due) : Long.compare(seq, o.seq);
+        }
+    }
+
+    /**
+     * Virtual nanoseconds since the run started.
+     */
+    @Override
+    public long nanoTime() {
+        return now;
+    }
+
+    @Override
+    public void sleepNanos(long simulatedNanos) {
+        throw new IllegalStateException("Nothing sleeps on a virtual clock; schedule the wake-up instead");
+    }
+
+    /**
+     * Simulated time costs no real time at all.
+     */
+    @Override
+    public long realNanos(long simulatedNanos) {
+        return 0;
+    }
+
+    public void schedule(Runnable task, long delayNanos) {
+        queue.add(new Scheduled(now + Math.max(0, delayNanos), scheduled++, task));
+    }
+
+    /**
+     * Moves the clock to the earliest task and runs it. Returns false if
+     * nothing is left to run.
+     */
+    public boolean runNext() {
+        Scheduled next = queue.poll();
+        if (next == null) {
+            return false;
+        }
+        now = next.due;
+        next.task.run();
+        return true;
+    }
+}
@@ -0,0 +1,66 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.models.Food;
+
+import java.util.List;
+
+/**
+ * Weighted fair queueing between VIP and regular customers. Each order is
+ * stamped with a virtual finish time, its cook time divided by its class's
+ * weight and counted from the later of the current virtual time and the
+ * class's previous finish; the smallest finish goes first. Each class gets
+ * machine time in proportion to its weight while both have orders waiting,
+ * and neither can be starved.
+ */
+public class WeightedFairScheduling implements OrderSchedulingPolicy {
+    private static final long SCALE = 1_000;
+
+    private final OrderHeap orders = new OrderHeap();
+    private final long vipWeight;
+    private final long regularWeight;
+    private long virtualTime = 0;
+    private long vipFinish = 0;
+    private long regularFinish = 0;
+
+    /**
+     * VIPs weighted 4 to 1.
+     */
+    public WeightedFairScheduling() {
+        this(4, 1);
+    }
+
+    public WeightedFairScheduling(int vipWeight, int regularWeight) {
+        this.vipWeight = vipWeight;
+        this.regularWeight = regularWeight;
+    }
+
+    @Override
+    public void add(int orderNum, List<Food> items, boolean vip, long placedNanos) {
+        long cost = OrderSchedulingPolicy.totalCookTime(items) * SCALE;
+        if (vip) {
+            vipFinish = Math.max(virtualTime, vipFinish) + cost / vipWeight;
+            orders.add(orderNum, vipFinish);
+        } else {
+            regularFinish = Math.max(virtualTime, regularFinish) + cost / regularWeight;
+            orders.add(orderNum, regularFinish);
+        }
+    }
+
+    @Override
+    public int next() {
+        if (orders.size() > 0) {
+            virtualTime = orders.peekPriority();
+        }
+        return orders.poll();
+    }
+
+    @Override
+    public int size() {
+        return orders.size();
+    }
+
+    @Override
+    public String toString() {
+        return "WFQ";
+    }
+}
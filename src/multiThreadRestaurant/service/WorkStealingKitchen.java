@@ -0,0 +1,177 @@
+package multiThreadRestaurant.service;
+
+import multiThreadRestaurant.enumeration.FoodType;
+import multiThreadRestaurant.models.Food;
+import multiThreadRestaurant.models.Machine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-cook deques of item tasks for the work-stealing kitchen. When a
+ * machine finishes an item, taking it off goes on the deque of the cook who
+ * received the order. A cook works its own deque newest-first and, once it
+ * is empty, steals the oldest task from another cook's. An item task is a
+ * long packing the order number, the machine's unit and the Food.id, so
+ * queueing allocates nothing.
+ *
+ * Idle cooks park in {@link #awaitWork} until a task is pushed or an order
+ * is placed. A version counter closes the gap between finding nothing and
+ * parking.
+ */
+public class WorkStealingKitchen {
+    public static final long NONE = -1;
+
+    private final TaskDeque[] deques;
+    private final ReentrantLock idleLock = new ReentrantLock();
+    private final Condition workArrived = idleLock.newCondition();
+    private volatile long version = 0;
+    private final AtomicLong steals = new AtomicLong();
+
+    public WorkStealingKitchen(int cooks) {
+        deques = new TaskDeque[cooks];
+        for (int i = 0; i < cooks; i++) {
+            deques[i] = new TaskDeque();
+        }
+    }
+
+    public static long task(int orderNum, Machine machine) {
+        return ((long) orderNum << 16) | (machine.unit << 8) | machine.machineFoodType.id;
+    }
+
+    public static int orderOf(long task) {
+        return (int) (task >>> 16);
+    }
+
+    public static int unitOf(long task) {
+        return (int) (task >>> 8) & 0xFF;
+    }
+
+    public static Food foodOf(long task) {
+        return FoodType.all[(int) (task & 0xFF)];
+    }
+
+    /**
+     * Puts a task on a cook's deque and wakes an idle cook.
+     */
+    public void push(int cook, long task) {
+        deques[cook].addLast(task);
+        signalWork();
+    }
+
+    /**
+     * The calling cook's newest task, or else the oldest task stolen from
+     * another cook, or {@link #NONE}.
+     */
+    public long next(int cook) {
+        long task = deques[cook].pollLast();
+        if (task != NONE) {
+            return task;
+        }
+        for (int k = 1; k < deques.length; k++) {
+            task = deques[(cook + k) % deques.length].pollFirst();
+            if (task != NONE) {
+                steals.incrementAndGet();
+                return task;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Read before looking for work; pass to {@link #awaitWork} if none was found.
+     */
+    public long version() {
+        return version;
+    }
+
+    public void signalWork() {
+        idleLock.lock();
+        try {
+            version++;
+            workArrived.signal();
+        } finally {
+            idleLock.unlock();
+        }
+    }
+
+    /**
+     * Parks the caller until work arrives, unless it already has since
+     * {@code seenVersion} was read.
+     */
+    public void awaitWork(long seenVersion) throws InterruptedException {
+        idleLock.lockInterruptibly();
+        try {
+            while (version == seenVersion) {
+                workArrived.await();
+            }
+        } finally {
+            idleLock.unlock();
+        }
+    }
+
+    /**
+     * Tasks taken from a deque other than the taker's own.
+     */
+    public long steals() {
+        return steals.get();
+    }
+
+    /**
+     * Growable ring of item tasks; the owner takes from the back, thieves
+     * from the front.
+     */
+    private static class TaskDeque {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long[] ring = new long[16];
+        private int head = 0;
+        private int size = 0;
+
+        void addLast(long task) {
+            lock.lock();
+            try {
+                if (size == ring.length) {
+                    long[] grown = new long[ring.length * 2];
+                    for (int i = 0; i < size; i++) {
+                        grown[i] = ring[(head + i) & (ring.length - 1)];
+                    }
+                    ring = grown;
+                    head = 0;
+                }
+                ring[(head + size) & (ring.length - 1)] = task;
+                size++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long pollLast() {
+            lock.lock();
+            try {
+                if (size == 0) {
+                    return NONE;
+                }
+                size--;
+                return ring[(head + size) & (ring.length - 1)];
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long pollFirst() {
+            lock.lock();
+            try {
+                if (size == 0) {
+                    return NONE;
+                }
+                long task = ring[head];
+                head = (head + 1) & (ring.length - 1);
+                size--;
+                return task;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}